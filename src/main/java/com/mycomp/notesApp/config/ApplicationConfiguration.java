@@ -1,9 +1,37 @@
 package com.mycomp.notesApp.config;
 
+import java.time.Duration;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycomp.notesApp.repositories.NotesCache;
+import com.mycomp.notesApp.utils.AppConstants;
+
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
@@ -24,6 +52,8 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 @Configuration
 @EnableTransactionManagement
+@EnableCaching
+@EnableScheduling
 @EnableSwagger2
 public class ApplicationConfiguration {
 
@@ -57,6 +87,88 @@ public class ApplicationConfiguration {
 		                           .build();
 	}
 
+	/**
+	 * Notes cache is bounded by approximate heap its notes hold, other caches
+	 * keep spring.cache.caffeine.spec
+	 * 
+	 * @return
+	 */
+	@Bean
+	public CacheManagerCustomizer<CaffeineCacheManager> notesCacheCustomizer(
+	        @Value("${notes.cache.max-weight:64MB}") DataSize maxWeight,
+	        @Value("${notes.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+		return cacheManager -> cacheManager.registerCustomCache(AppConstants.NOTES_CACHE, Caffeine.newBuilder()
+		                                                                                        .maximumWeight(maxWeight.toBytes())
+		                                                                                        .weigher(NotesCache::weigh)
+		                                                                                        .expireAfterWrite(expireAfterWrite)
+		                                                                                        .recordStats()
+		                                                                                        .build());
+	}
+
+	/**
+	 * Writes and reads application/x-jackson-smile, mapper is configured like the
+	 * JSON one so that dates and features match
+	 * 
+	 * @return
+	 */
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory())
+		                                                           .build());
+	}
+
+	/**
+	 * Writes and reads application/cbor, mapper is configured like the JSON one
+	 * 
+	 * @return
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory())
+		                                                          .build());
+	}
+
+	/**
+	 * Responses of a URL differ by Accept header since JSON, XML, Smile and CBOR
+	 * are negotiated, caches are told so
+	 * 
+	 * @return
+	 */
+	@Bean
+	public WebMvcConfigurer varyByAcceptConfigurer() {
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(new HandlerInterceptor() {
+					@Override
+					public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+					        Object handler) {
+						response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+						return true;
+					}
+				})
+				        .addPathPatterns("/api/**");
+			}
+
+		};
+	}
+
+	/**
+	 * Lets tomcat gzip responses having a strong ETag, ETags of negotiated notes
+	 * and listings name Accept-Encoding so that compressed and plain bodies never
+	 * share one
+	 * 
+	 * @return
+	 */
+	@Bean
+	public WebServerFactoryCustomizer<TomcatServletWebServerFactory> strongETagCompressionCustomizer() {
+		return factory -> factory.addConnectorCustomizers(connector -> {
+			if (connector.getProtocolHandler() instanceof AbstractHttp11Protocol) {
+				((AbstractHttp11Protocol<?>) connector.getProtocolHandler()).setNoCompressionStrongETag(false);
+			}
+		});
+	}
+
 	/**
 	 * Used to enable CORS in application
 	 * 
@@ -74,4 +186,23 @@ public class ApplicationConfiguration {
 		};
 	}
 
+	/**
+	 * Enables same CORS mapping as {@link #corsConfigurer()} for reactive profile,
+	 * WebMvcConfigurer is not read by WebFlux
+	 * 
+	 * @return
+	 */
+	@Bean
+	@Profile("reactive")
+	public WebFluxConfigurer reactiveCorsConfigurer() {
+		return new WebFluxConfigurer() {
+			@Override
+			public void addCorsMappings(org.springframework.web.reactive.config.CorsRegistry registry) {
+				registry.addMapping("/**")
+				        .allowedOrigins("http://localhost");
+			}
+
+		};
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.mycomp.notesApp.config;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.mycomp.notesApp.service.NotesStream;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesPageTO;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records metrics of note services, repositories and exception handlers so
+ * that services stay free of instrumentation :
+ *
+ * notes.service and notes.repository - timer per method, tagged with exception
+ * thrown, reactive calls are timed from subscription to completion, error or
+ * cancellation, tagged cancelled when cancelled. Note streams are timed until
+ * closed
+ *
+ * notes.text.size - distribution of note text length in chars, read from notes
+ * passed to and returned by services
+ *
+ * notes.errors - count of errors reported by exception handlers per exception
+ * type and status
+ *
+ * Percentiles and histograms are configured by management.metrics.distribution
+ * properties, cache hits are published by cache as cache.gets
+ *
+ * @author Rahil
+ *
+ */
+@Aspect
+@Component
+public class NotesMetricsAspect {
+
+	private static final String NONE = "none";
+
+	private static final String CANCELLED = "cancelled";
+
+	@Autowired
+	protected MeterRegistry meterRegistry;
+
+	@Around("execution(* com.mycomp.notesApp.service.NoteService.*(..))")
+	public Object timeNoteService(ProceedingJoinPoint joinPoint) throws Throwable {
+		return timed("notes.service", "NoteService", joinPoint, true);
+	}
+
+	@Around("execution(* com.mycomp.notesApp.service.ReactiveNoteService.*(..))")
+	public Object timeReactiveNoteService(ProceedingJoinPoint joinPoint) throws Throwable {
+		return timed("notes.service", "ReactiveNoteService", joinPoint, true);
+	}
+
+	@Around("execution(* com.mycomp.notesApp.repositories.NotesRepository+.*(..))")
+	public Object timeNotesRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		return timed("notes.repository", "NotesRepository", joinPoint, false);
+	}
+
+	@Around("execution(* com.mycomp.notesApp.repositories.ReactiveNotesRepository+.*(..))")
+	public Object timeReactiveNotesRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		return timed("notes.repository", "ReactiveNotesRepository", joinPoint, false);
+	}
+
+	@AfterReturning(pointcut = "execution(org.springframework.http.ResponseEntity com.mycomp.notesApp.controller.*ExceptionHandler.*(..)) && args(ex, ..)", returning = "response")
+	public void countError(Throwable ex, ResponseEntity<?> response) {
+		meterRegistry.counter("notes.errors", "exception", ex.getClass()
+		                                                    .getSimpleName(),
+		        "status", String.valueOf(response.getStatusCodeValue()))
+		             .increment();
+	}
+
+	private Object timed(String name, String type, ProceedingJoinPoint joinPoint, boolean textSizes)
+	        throws Throwable {
+		String method = joinPoint.getSignature()
+		                         .getName();
+		if (textSizes) {
+			for (Object arg : joinPoint.getArgs()) {
+				recordTextSizes(method, "in", arg);
+			}
+		}
+		Timer.Sample sample = Timer.start(meterRegistry);
+		Object result;
+		try {
+			result = joinPoint.proceed();
+		} catch (Throwable ex) {
+			stop(sample, name, type, method, ex);
+			throw ex;
+		}
+		if (result instanceof Mono) {
+			Mono<?> mono = (Mono<?>) result;
+			return Mono.defer(() -> {
+				Timer.Sample subscribed = Timer.start(meterRegistry);
+				AtomicReference<Throwable> error = new AtomicReference<>();
+				return mono.doOnSuccess(value -> {
+					if (textSizes) {
+						recordTextSizes(method, "out", value);
+					}
+				})
+				           .doOnError(error::set)
+				           .doFinally(signal -> stop(subscribed, name, type, method, signal, error.get()));
+			});
+		}
+		if (result instanceof Flux) {
+			Flux<Object> flux = Flux.from((Flux<?>) result);
+			return Flux.defer(() -> {
+				Timer.Sample subscribed = Timer.start(meterRegistry);
+				AtomicReference<Throwable> error = new AtomicReference<>();
+				Flux<Object> timed = flux.doOnError(error::set)
+				                         .doFinally(signal -> stop(subscribed, name, type, method, signal,
+				                                 error.get()));
+				return textSizes ? timed.doOnNext(value -> recordTextSizes(method, "out", value)) : timed;
+			});
+		}
+		if (result instanceof NotesStream) {
+			// notes are read from cursor while stream is consumed
+			return ((NotesStream) result).onClose(ex -> stop(sample, name, type, method, ex));
+		}
+		stop(sample, name, type, method, null);
+		if (textSizes) {
+			recordTextSizes(method, "out", result);
+		}
+		return result;
+	}
+
+	private void stop(Timer.Sample sample, String name, String type, String method, Throwable ex) {
+		record(sample, name, type, method, ex == null ? NONE
+		        : ex.getClass()
+		            .getSimpleName());
+	}
+
+	private void stop(Timer.Sample sample, String name, String type, String method, SignalType signal,
+	        Throwable ex) {
+		if (signal == SignalType.CANCEL) {
+			record(sample, name, type, method, CANCELLED);
+		} else {
+			stop(sample, name, type, method, ex);
+		}
+	}
+
+	private void record(Timer.Sample sample, String name, String type, String method, String exception) {
+		sample.stop(Timer.builder(name)
+		                 .tag("type", type)
+		                 .tag("method", method)
+		                 .tag("exception", exception)
+		                 .register(meterRegistry));
+	}
+
+	/**
+	 * Records text length of notes held by value, lists and pages of notes are
+	 * recorded note by note
+	 */
+	private void recordTextSizes(String method, String direction, Object value) {
+		if (value instanceof NoteTO) {
+			String text = ((NoteTO) value).getNoteText();
+			if (text != null) {
+				DistributionSummary.builder("notes.text.size")
+				                   .baseUnit("chars")
+				                   .tag("method", method)
+				                   .tag("direction", direction)
+				                   .register(meterRegistry)
+				                   .record(text.length());
+			}
+		} else if (value instanceof NotesPageTO) {
+			recordTextSizes(method, direction, ((NotesPageTO<?>) value).getNotes());
+		} else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				recordTextSizes(method, direction, element);
+			}
+		}
+	}
+
+}
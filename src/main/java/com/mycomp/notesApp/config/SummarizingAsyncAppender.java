@@ -0,0 +1,75 @@
+package com.mycomp.notesApp.config;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+/**
+ * Async appender which never blocks logging thread, events are handed to
+ * appenders through bounded queue of queueSize. Under backpressure events are
+ * dropped instead of waiting :
+ *
+ * TRACE, DEBUG and INFO once remaining capacity is below discardingThreshold
+ *
+ * any event once queue is full
+ *
+ * Dropped events are counted and summarized by a WARN event queued as soon as
+ * queue has room again, so that gaps in logs are visible
+ *
+ * @author Rahil
+ *
+ */
+public class SummarizingAsyncAppender extends AsyncAppender {
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	public SummarizingAsyncAppender() {
+		setNeverBlock(true);
+	}
+
+	@Override
+	protected void append(ILoggingEvent event) {
+		int remainingCapacity = getRemainingCapacity();
+		if (remainingCapacity == 0 || remainingCapacity < getDiscardingThreshold() && isDiscardable(event)) {
+			dropped.incrementAndGet();
+			return;
+		}
+		if (remainingCapacity > getDiscardingThreshold()) {
+			summarizeDropped();
+		}
+		super.append(event);
+	}
+
+	@Override
+	public void stop() {
+		long count = dropped.getAndSet(0);
+		if (count > 0) {
+			addWarn(count + " log events dropped by appender " + getName() + " under backpressure");
+		}
+		super.stop();
+	}
+
+	private void summarizeDropped() {
+		// plain read keeps common path free of writes to shared counter
+		if (dropped.get() == 0) {
+			return;
+		}
+		long count = dropped.getAndSet(0);
+		if (count == 0) {
+			return;
+		}
+		LoggingEvent summary = new LoggingEvent(SummarizingAsyncAppender.class.getName(),
+		        ((LoggerContext) getContext()).getLogger(SummarizingAsyncAppender.class), Level.WARN,
+		        "{} log events dropped by appender {} under backpressure", null, new Object[] { count, getName() });
+		// dropped events belong to other requests, correlation id of current one is
+		// left out
+		summary.setMDCPropertyMap(Collections.emptyMap());
+		super.append(summary);
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.mycomp.notesApp.controller;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.mycomp.notesApp.utils.CorrelationIds;
+
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Tags every request with a correlation id, see {@link CorrelationIds}. Id is
+ * held in MDC of request thread until response is written
+ *
+ * @author Rahil
+ *
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Profile("!reactive")
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+	        throws ServletException, IOException {
+		String correlationId = CorrelationIds.resolve(request.getHeader(CorrelationIds.HEADER));
+		response.setHeader(CorrelationIds.HEADER, correlationId);
+		MDC.put(CorrelationIds.MDC_KEY, correlationId);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			MDC.remove(CorrelationIds.MDC_KEY);
+		}
+	}
+
+}
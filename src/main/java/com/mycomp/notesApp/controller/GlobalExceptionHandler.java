@@ -10,6 +10,8 @@ import com.mycomp.notesApp.exceptions.DataMappingException;
 import com.mycomp.notesApp.exceptions.DataNotFoundException;
 import com.mycomp.notesApp.exceptions.DataNotSavedException;
 import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+import com.mycomp.notesApp.exceptions.PreconditionFailedException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
@@ -41,6 +43,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Order(Ordered.HIGHEST_PRECEDENCE)
 @ControllerAdvice
+@Profile("!reactive")
 @Slf4j
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
@@ -65,10 +68,14 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 	protected ResponseEntity<Object> handleInputParameterInvalidException(InputParameterInvalidException ex) {
 		AppError error = new AppError(HttpStatus.BAD_REQUEST);
 		error.setMessage(ex.getMessage());
-		error.setSubErrors(Stream
-		                         .of(new ApiValidationError(ex.getObjectName(), ex.getFieldName(), ex.getFieldValue(),
-		                                 ex.getErrorMessage()))
-		                         .collect(Collectors.toList()));
+		if (ex.getViolations() != null) {
+			error.setSubErrors(ex.getViolations());
+		} else {
+			error.setSubErrors(Stream
+			                         .of(new ApiValidationError(ex.getObjectName(), ex.getFieldName(), ex.getFieldValue(),
+			                                 ex.getErrorMessage()))
+			                         .collect(Collectors.toList()));
+		}
 		if (ex.getException() != null)
 			error.setDebugMessage(ex.getException()
 			                        .getLocalizedMessage());
@@ -150,6 +157,13 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 		return buildResponseEntity(error);
 	}
 
+	@ExceptionHandler(PreconditionFailedException.class)
+	protected ResponseEntity<Object> handlePreconditionFailed(PreconditionFailedException ex) {
+		AppError error = new AppError(HttpStatus.PRECONDITION_FAILED);
+		error.setMessage(ex.getMessage());
+		return buildResponseEntity(error);
+	}
+
 	@ExceptionHandler(DataMappingException.class)
 	protected ResponseEntity<Object> handleDataMapping(DataMappingException ex) {
 		AppError error = new AppError(HttpStatus.INTERNAL_SERVER_ERROR);
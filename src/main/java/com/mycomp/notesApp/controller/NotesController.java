@@ -1,17 +1,44 @@
 package com.mycomp.notesApp.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.CRC32;
 
 import javax.validation.Valid;
 
+import com.mycomp.notesApp.domain.TagMatch;
 import com.mycomp.notesApp.exceptions.DataNotFoundException;
 import com.mycomp.notesApp.exceptions.DataNotSavedException;
+import com.mycomp.notesApp.exceptions.PreconditionFailedException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.mycomp.notesApp.service.NoteService;
+import com.mycomp.notesApp.service.NotesStream;
 import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NoteVersionTO;
+import com.mycomp.notesApp.to.NotesBatchResultTO;
+import com.mycomp.notesApp.to.NotesPageTO;
 import com.mycomp.notesApp.to.NotesSummaryTO;
+import com.mycomp.notesApp.utils.AppConstants;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.data.repository.query.Param;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,7 +47,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -33,6 +64,7 @@ import io.swagger.annotations.ApiParam;
  *
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1")
 @Api(value = "Notes Management APIs", description = "Operations for notes management")
 public class NotesController {
@@ -40,6 +72,9 @@ public class NotesController {
 	@Autowired
 	protected NoteService notesService;
 
+	@Autowired
+	protected ObjectMapper objectMapper;
+
 	@PostMapping("/notes")
 	@ApiOperation(value = "Add new Note in the system,returns added note", response = NoteTO.class)
 	public NoteTO createNote(
@@ -48,54 +83,311 @@ public class NotesController {
 		return notesService.createNote(inputNote);
 	}
 
+	@PostMapping("/notes/batch")
+	@ApiOperation(value = "Add notes in batch, returns outcome of every note", response = NotesBatchResultTO.class)
+	public NotesBatchResultTO createNotes(
+	        @RequestBody @ApiParam(value = "notes to be added", required = true) List<NoteTO> inputNotes)
+	        throws DataNotSavedException {
+		return notesService.createNotes(inputNotes);
+	}
+
+	@PutMapping("/notes/batch")
+	@ApiOperation(value = "Update notes in batch, returns outcome of every note", response = NotesBatchResultTO.class)
+	public NotesBatchResultTO updateNotes(
+	        @RequestBody @ApiParam(value = "notes to update with their noteID", required = true) List<NoteTO> inputNotes)
+	        throws DataNotSavedException {
+		return notesService.updateNotes(inputNotes);
+	}
+
+	@DeleteMapping("/notes/batch")
+	@ApiOperation(value = "Delete notes in batch, returns outcome of every note", response = NotesBatchResultTO.class)
+	public NotesBatchResultTO deleteNotes(
+	        @RequestBody @ApiParam(value = "ids of notes to be deleted", required = true) List<String> noteIDs)
+	        throws DataNotSavedException {
+		return notesService.deleteNotes(noteIDs);
+	}
+
 	@GetMapping("/notes/{noteID}")
-	@ApiOperation(value = "Search note,returns note if found", response = NoteTO.class)
-	public NoteTO searchNote(@PathVariable @ApiParam(value = "note id to search") String noteID)
+	@ApiOperation(value = "Search note,returns note if found, supports If-None-Match and If-Modified-Since", response = NoteTO.class)
+	public NoteTO searchNote(@PathVariable @ApiParam(value = "note id to search") String noteID, WebRequest request)
 	        throws DataNotFoundException {
+		if (noteNotModified(noteID, request, true)) {
+			return null;
+		}
 		return notesService.searchNote(noteID);
 	}
 
 	@GetMapping("/notes/stats/{noteID}")
-	@ApiOperation(value = "returns notes statistics", response = NoteTO.class)
-	public Map<String, Integer> notesStats(@PathVariable @ApiParam(value = "notes id to search") String noteID)
-	        throws DataNotFoundException {
-		return notesService.statsPerNote(noteID);
+	@ApiOperation(value = "returns notes statistics, supports If-None-Match and If-Modified-Since", response = NoteTO.class)
+	public Map<String, Integer> notesStats(@PathVariable @ApiParam(value = "notes id to search") String noteID,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "number of most frequent words, 0 for all stored, at most notes.stats.max-words (1000 by default) when it is set") int top,
+	        WebRequest request) throws DataNotFoundException {
+		if (noteNotModified(noteID, request, true)) {
+			return null;
+		}
+		return notesService.statsPerNote(noteID, top);
 	}
 	
 	@GetMapping("/notes")
 	@ApiOperation(value = "Fetch all available notes in the system,returns available notes")
-	public List<NoteTO> listNotes() throws DataNotFoundException {
+	public List<NoteTO> listNotes(WebRequest request) throws DataNotFoundException {
+		if (notesNotModified(request)) {
+			return null;
+		}
 		return notesService.listNotes();
 	}
 
+	@GetMapping(value = "/notes/stream", produces = AppConstants.NDJSON_MEDIA_TYPE)
+	@ApiOperation(value = "Stream available notes as newline delimited JSON ordered by id, when limit is reached last line carries continuationToken to resume listing")
+	public StreamingResponseBody streamNotes(
+	        @RequestParam(required = false) @ApiParam(value = "token returned by previous stream") String continuationToken,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "max notes to return, 0 for all") int limit)
+	        throws DataNotFoundException {
+		NotesStream notes = notesService.streamNotes(continuationToken, limit);
+		ObjectWriter writer = objectMapper.writer()
+		                                  .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		return out -> {
+			try (NotesStream cursor = notes;
+			        JsonGenerator generator = objectMapper.getFactory()
+			                                              .createGenerator(out)) {
+				// lines are delimited explicitly, default root separator is a space
+				generator.setRootValueSeparator(null);
+				while (cursor.hasNext()) {
+					writer.writeValue(generator, cursor.next());
+					generator.writeRaw('\n');
+				}
+				String token = cursor.getContinuationToken();
+				if (token != null) {
+					writer.writeValue(generator, Collections.singletonMap("continuationToken", token));
+					generator.writeRaw('\n');
+				}
+			}
+		};
+	}
+
 	@GetMapping("/notes/summary")
 	@ApiOperation(value = "Fetch all available notes in the system only title and text , supports pagination, filter by tags and sort by create date descending")
 	public List<NotesSummaryTO> listNotesSummary(@Param(value = "page") int page, 
-	@Param(value = "size") int size,@Param(value="filters") String[] filters) throws DataNotFoundException {
+	@Param(value = "size") int size,@Param(value="filters") String[] filters, WebRequest request) throws DataNotFoundException {
+		if (notesNotModified(request)) {
+			return null;
+		}
 		return notesService.listNotesSummary(page,size,filters);
 	}
 
-	@GetMapping("/notes/text/{noteID}")
-	@ApiOperation(value = "returns note's text", response = NoteTO.class)
-	public String notesText(@PathVariable @ApiParam(value = "note id to search") String noteID)
+	@GetMapping("/notes/summary/keyset")
+	@ApiOperation(value = "Fetch notes summary page after given cursor sorted by create date descending, supports filter by tags, returns cursor of next page")
+	public NotesPageTO<NotesSummaryTO> listNotesSummaryAfter(
+	        @RequestParam(required = false) @ApiParam(value = "nextCursor of previous page, empty for first page") String cursor,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size,
+	        @RequestParam(required = false) @ApiParam(value = "tags to filter") String[] filters,
+	        WebRequest request) throws DataNotFoundException {
+		if (notesNotModified(request)) {
+			return null;
+		}
+		return notesService.listNotesSummaryAfter(cursor, size, filters);
+	}
+
+	@GetMapping("/notes/search")
+	@ApiOperation(value = "Search notes by words of their title and text, returns notes summary ordered by relevance with score, supports pagination")
+	public List<NotesSummaryTO> searchNotes(
+	        @RequestParam @ApiParam(value = "words or \"phrases\" to search, -word excludes notes containing it", required = true) String q,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "page number") int page,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size, WebRequest request)
 	        throws DataNotFoundException {
-		return notesService.getNotesText(noteID);
+		if (notesNotModified(request)) {
+			return null;
+		}
+		return notesService.searchNotes(q, page, size);
+	}
+
+	@GetMapping("/notes/match")
+	@ApiOperation(value = "Fetch summary of notes having tags and all words in title or text, sorted by create date descending, supports pagination")
+	public List<NotesSummaryTO> matchNotes(
+	        @RequestParam(required = false) @ApiParam(value = "tags to filter") String[] tags,
+	        @RequestParam(defaultValue = "ALL") @ApiParam(value = "notes having ANY, ALL or NONE of tags match") TagMatch match,
+	        @RequestParam(required = false) @ApiParam(value = "words notes must contain, case insensitive") String q,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "page number") int page,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size, WebRequest request)
+	        throws DataNotFoundException {
+		if (notesNotModified(request)) {
+			return null;
+		}
+		return notesService.matchNotes(tags, match, q, page, size);
+	}
+
+	@GetMapping("/notes/tags/facets")
+	@ApiOperation(value = "Fetch number of notes carrying every tag, optionally of notes created within date range")
+	public Map<String, Long> tagFacets(
+	        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @ApiParam(value = "first creation day as yyyy-MM-dd") LocalDate from,
+	        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @ApiParam(value = "last creation day as yyyy-MM-dd") LocalDate to,
+	        WebRequest request) throws DataNotFoundException {
+		if (notesNotModified(request)) {
+			return null;
+		}
+		return notesService.tagFacets(from, to);
+	}
+
+	@GetMapping("/notes/tagged")
+	@ApiOperation(value = "Fetch notes having ANY, ALL or NONE of tags, supports pagination and sort by create date or title")
+	public List<NoteTO> listNotesFiltered(
+	        @RequestParam @ApiParam(value = "tags to filter", required = true) List<String> tags,
+	        @RequestParam(defaultValue = "ALL") @ApiParam(value = "notes having ANY, ALL or NONE of tags match") TagMatch match,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "page number") int page,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size,
+	        @RequestParam(defaultValue = "createDate") @ApiParam(value = "createDate or noteTitle") String sortBy,
+	        @RequestParam(defaultValue = "DESC") @ApiParam(value = "ASC or DESC") Sort.Direction direction,
+	        WebRequest request) throws DataNotFoundException {
+		if (notesNotModified(request)) {
+			return null;
+		}
+		return notesService.listNotesFiltered(tags, match, page, size, sortBy, direction);
+	}
+
+	@GetMapping("/notes/keyset")
+	@ApiOperation(value = "Fetch notes page after given cursor sorted by create date descending, returns cursor of next page")
+	public NotesPageTO<NoteTO> listNotesAfter(
+	        @RequestParam(required = false) @ApiParam(value = "nextCursor of previous page, empty for first page") String cursor,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size, WebRequest request)
+	        throws DataNotFoundException {
+		if (notesNotModified(request)) {
+			return null;
+		}
+		return notesService.listNotesAfter(cursor, size);
+	}
+
+	/**
+	 * Text is written as it is read from resource, Range header is answered with
+	 * requested bytes only. Unsatisfiable range is answered here, as otherwise
+	 * whole text would be written along with 416 status
+	 */
+	@GetMapping("/notes/text/{noteID}")
+	@ApiOperation(value = "returns note's text, supports byte ranges, If-None-Match and If-Modified-Since", response = String.class)
+	public ResponseEntity<Resource> notesText(@PathVariable @ApiParam(value = "note id to search") String noteID,
+	        @RequestHeader HttpHeaders headers, WebRequest request) throws DataNotFoundException, IOException {
+		if (noteNotModified(noteID, request, false)) {
+			return null;
+		}
+		Resource text = notesService.getNotesText(noteID);
+		try {
+			HttpRange.toResourceRegions(headers.getRange(), text);
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+			                     .header(HttpHeaders.CONTENT_RANGE, "bytes */" + text.contentLength())
+			                     .build();
+		}
+		return ResponseEntity.ok()
+		                     .contentType(MediaType.parseMediaType(AppConstants.TEXT_MEDIA_TYPE))
+		                     .body(text);
 	}
 
 	@PutMapping("/notes/{noteID}")
-	@ApiOperation(value = "Update note in the system ,returns modified note details", response = NoteTO.class)
+	@ApiOperation(value = "Update note in the system ,returns modified note details, If-Match ETag makes update fail with 412 when note has changed", response = NoteTO.class)
 	public NoteTO updateNote(@Valid @RequestBody @ApiParam(value = "Note to update") NoteTO input,
-	        @PathVariable @ApiParam(value = "noteID which needs to be updated") String noteID)
-	        throws DataNotSavedException {
+	        @PathVariable @ApiParam(value = "noteID which needs to be updated") String noteID,
+	        @RequestHeader HttpHeaders headers) throws DataNotSavedException {
 		input.setNoteID(noteID);
-		return notesService.updateNote(input);
+		return notesService.updateNote(input, expectedVersions(headers));
 	}
 
 	@DeleteMapping("/notes/{noteID}")
-	@ApiOperation(value = "Delete note in the system ,returns 200 success OK upon succesful deletion")
-	void deleteNote(@PathVariable @ApiParam(value = "note id to be deleted") String noteID)
-	        throws DataNotSavedException {
-		notesService.deleteNote(noteID);
+	@ApiOperation(value = "Delete note in the system ,returns 200 success OK upon succesful deletion, If-Match ETag makes delete fail with 412 when note has changed")
+	void deleteNote(@PathVariable @ApiParam(value = "note id to be deleted") String noteID,
+	        @RequestHeader HttpHeaders headers) throws DataNotSavedException {
+		notesService.deleteNote(noteID, expectedVersions(headers));
+	}
+
+	/**
+	 * Answers conditional GET of a note from its version, ETag and Last-Modified
+	 * are set on response. Request without If-None-Match or If-Modified-Since
+	 * has nothing to compare, version is then taken from notes cache only and no
+	 * validators are sent when note is not cached
+	 * 
+	 * @param negotiated - true when body is negotiated by Accept and
+	 *                   Accept-Encoding, false for single representation
+	 * @return true when client's copy is current and 304 is to be sent
+	 */
+	private boolean noteNotModified(String noteID, WebRequest request, boolean negotiated) {
+		NoteVersionTO version = isConditional(request) ? notesService.noteVersion(noteID)
+		        : notesService.cachedNoteVersion(noteID);
+		if (version == null) {
+			return false;
+		}
+		String eTag = negotiated ? eTag(version.getVersion(), request) : eTag(version.getVersion());
+		return request.checkNotModified(eTag, version.getLastModified()
+		                                                                  .atZone(ZoneId.systemDefault())
+		                                                                  .toInstant()
+		                                                                  .toEpochMilli());
+	}
+
+	/**
+	 * Answers conditional GET of a listing from revision of note collection, any
+	 * note write changes ETag of every listing. Request without If-None-Match is
+	 * given revision last read by this instance, which may be older than listing
+	 * but never newer
+	 * 
+	 * @return true when client's copy is current and 304 is to be sent
+	 */
+	private boolean notesNotModified(WebRequest request) {
+		long revision = isConditional(request) ? notesService.notesRevision() : notesService.lastNotesRevision();
+		return request.checkNotModified(eTag(revision, request));
+	}
+
+	private static boolean isConditional(WebRequest request) {
+		return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+		        || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+	}
+
+	private static String eTag(long version) {
+		return "\"" + version + "\"";
+	}
+
+	/**
+	 * Strong ETag of a negotiated body names its version and checksum of Accept
+	 * and Accept-Encoding headers, which pick format and coding of bytes sent, so
+	 * that different bytes never share an ETag
+	 */
+	private static String eTag(long version, WebRequest request) {
+		CRC32 variant = new CRC32();
+		for (String header : new String[] { HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING }) {
+			String value = request.getHeader(header);
+			if (value != null) {
+				variant.update(value.getBytes(StandardCharsets.UTF_8));
+			}
+			variant.update('\n');
+		}
+		return "\"" + version + "-" + Long.toHexString(variant.getValue()) + "\"";
+	}
+
+	/**
+	 * Versions of If-Match header. Every ETag of a note names its version ahead of
+	 * representation, version itself is compared exactly by update or delete.
+	 * If-Match compares ETags strongly, so weak ones never match
+	 * 
+	 * @return versions note is expected to have, null for any
+	 * @throws PreconditionFailedException when no ETag can match
+	 */
+	private static List<Long> expectedVersions(HttpHeaders headers) {
+		List<String> eTags = headers.getIfMatch();
+		if (eTags.isEmpty() || eTags.contains("*")) {
+			return null;
+		}
+		List<Long> versions = new ArrayList<>();
+		for (String eTag : eTags) {
+			if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+				String version = eTag.substring(1, eTag.length() - 1);
+				int variant = version.indexOf('-');
+				try {
+					versions.add(Long.parseLong(variant < 0 ? version : version.substring(0, variant)));
+				} catch (NumberFormatException ex) {
+					// not an ETag of a note version
+				}
+			}
+		}
+		if (versions.isEmpty()) {
+			throw new PreconditionFailedException("Note has changed, If-Match carries no strong ETag of a note version");
+		}
+		return versions;
 	}
 
 }
@@ -0,0 +1,41 @@
+package com.mycomp.notesApp.controller;
+
+import com.mycomp.notesApp.utils.CorrelationIds;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Tags every request of reactive profile with a correlation id, see
+ * {@link CorrelationIds}. Request is not bound to a thread so id is carried in
+ * reactor context, reactive service puts it in MDC where it logs
+ *
+ * @author Rahil
+ *
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Profile("reactive")
+public class ReactiveCorrelationIdFilter implements WebFilter {
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		String correlationId = CorrelationIds.resolve(exchange.getRequest()
+		                                                      .getHeaders()
+		                                                      .getFirst(CorrelationIds.HEADER));
+		exchange.getResponse()
+		        .getHeaders()
+		        .set(CorrelationIds.HEADER, correlationId);
+		return chain.filter(exchange)
+		            .contextWrite(Context.of(CorrelationIds.MDC_KEY, correlationId));
+	}
+
+}
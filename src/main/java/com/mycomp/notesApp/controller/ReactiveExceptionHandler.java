@@ -0,0 +1,136 @@
+package com.mycomp.notesApp.controller;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import com.mycomp.notesApp.errors.ApiValidationError;
+import com.mycomp.notesApp.errors.AppError;
+import com.mycomp.notesApp.exceptions.DataMappingException;
+import com.mycomp.notesApp.exceptions.DataNotFoundException;
+import com.mycomp.notesApp.exceptions.DataNotSavedException;
+import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+import com.mycomp.notesApp.exceptions.PreconditionFailedException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class handles application exceptions of reactive profile, errors are
+ * reported with same errorCode, errorMessage and HTTP status as by
+ * {@link GlobalExceptionHandler}
+ * 
+ * @author Rahil
+ *
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ControllerAdvice
+@Profile("reactive")
+@Slf4j
+public class ReactiveExceptionHandler {
+
+	@ExceptionHandler(InputParameterInvalidException.class)
+	protected ResponseEntity<Object> handleInputParameterInvalidException(InputParameterInvalidException ex) {
+		AppError error = new AppError(HttpStatus.BAD_REQUEST);
+		error.setMessage(ex.getMessage());
+		if (ex.getViolations() != null) {
+			error.setSubErrors(ex.getViolations());
+		} else {
+			error.setSubErrors(Stream
+			                         .of(new ApiValidationError(ex.getObjectName(), ex.getFieldName(), ex.getFieldValue(),
+			                                 ex.getErrorMessage()))
+			                         .collect(Collectors.toList()));
+		}
+		if (ex.getException() != null)
+			error.setDebugMessage(ex.getException()
+			                        .getLocalizedMessage());
+		return buildResponseEntity(error);
+	}
+
+	/**
+	 * Handle WebExchangeBindException. Triggered when an object fails @Valid
+	 * validation.
+	 */
+	@ExceptionHandler(WebExchangeBindException.class)
+	protected ResponseEntity<Object> handleBindException(WebExchangeBindException ex) {
+		AppError error = new AppError(BAD_REQUEST);
+		error.setMessage("Validation error");
+		error.addValidationErrors(ex.getFieldErrors());
+		error.addValidationError(ex.getGlobalErrors());
+		return buildResponseEntity(error);
+	}
+
+	/**
+	 * Handle ServerWebInputException. Happens when request JSON is malformed,
+	 * parameter is missing or can not be converted
+	 */
+	@ExceptionHandler(ServerWebInputException.class)
+	protected ResponseEntity<Object> handleServerWebInput(ServerWebInputException ex) {
+		log.info("Invalid request : {}", ex.getReason());
+		return buildResponseEntity(new AppError(BAD_REQUEST, ex.getReason(), ex));
+	}
+
+	@ExceptionHandler(ResponseStatusException.class)
+	protected ResponseEntity<Object> handleResponseStatus(ResponseStatusException ex) {
+		return buildResponseEntity(new AppError(ex.getStatus(), ex.getReason(), ex));
+	}
+
+	@ExceptionHandler(DataNotFoundException.class)
+	protected ResponseEntity<Object> handleEntityNotFound(DataNotFoundException ex) {
+		AppError error = new AppError(NOT_FOUND);
+		error.setMessage(ex.getMessage());
+		if (ex.getException() != null)
+			error.setDebugMessage(ex.getException()
+			                        .getLocalizedMessage());
+		return buildResponseEntity(error);
+	}
+
+	@ExceptionHandler(PreconditionFailedException.class)
+	protected ResponseEntity<Object> handlePreconditionFailed(PreconditionFailedException ex) {
+		AppError error = new AppError(HttpStatus.PRECONDITION_FAILED);
+		error.setMessage(ex.getMessage());
+		return buildResponseEntity(error);
+	}
+
+	@ExceptionHandler(DataMappingException.class)
+	protected ResponseEntity<Object> handleDataMapping(DataMappingException ex) {
+		AppError error = new AppError(HttpStatus.INTERNAL_SERVER_ERROR);
+		error.setMessage(ex.getMessage());
+		if (ex.getException() != null)
+			error.setDebugMessage(ex.getException()
+			                        .getLocalizedMessage());
+		return buildResponseEntity(error);
+	}
+
+	@ExceptionHandler(DataNotSavedException.class)
+	protected ResponseEntity<Object> handleDataNotSavedException(DataNotSavedException ex) {
+		AppError error = new AppError(HttpStatus.INTERNAL_SERVER_ERROR);
+		error.setMessage(ex.getMessage());
+		if (ex.getException() != null)
+			error.setDebugMessage(ex.getException()
+			                        .getLocalizedMessage());
+		return buildResponseEntity(error);
+	}
+
+	@ExceptionHandler(Exception.class)
+	protected ResponseEntity<Object> handleGenericExceptions(Exception ex) {
+		AppError error = new AppError(HttpStatus.INTERNAL_SERVER_ERROR);
+		error.setMessage("Internal error");
+		error.setDebugMessage(ex.getLocalizedMessage());
+		return buildResponseEntity(error);
+	}
+
+	private ResponseEntity<Object> buildResponseEntity(AppError error) {
+		return new ResponseEntity<>(error, error.getStatus());
+	}
+
+}
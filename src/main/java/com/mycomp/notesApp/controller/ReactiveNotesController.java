@@ -0,0 +1,277 @@
+package com.mycomp.notesApp.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.Valid;
+
+import com.mycomp.notesApp.domain.TagMatch;
+import com.mycomp.notesApp.exceptions.DataNotFoundException;
+import com.mycomp.notesApp.service.ReactiveNoteService;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesBatchResultTO;
+import com.mycomp.notesApp.to.NotesPageTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+import com.mycomp.notesApp.utils.AppConstants;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Controller class for notes management APIs served by reactive profile, routes
+ * and payloads are same as of {@link NotesController}
+ * 
+ * @author Rahil
+ *
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1")
+@Api(value = "Notes Management APIs", description = "Operations for notes management")
+public class ReactiveNotesController {
+
+	@Autowired
+	protected ReactiveNoteService notesService;
+
+	@PostMapping("/notes")
+	@ApiOperation(value = "Add new Note in the system,returns added note", response = NoteTO.class)
+	public Mono<NoteTO> createNote(
+	        @Valid @RequestBody @ApiParam(value = "input notes's details that needs to be added", required = true) NoteTO inputNote) {
+		return notesService.createNote(inputNote);
+	}
+
+	@PostMapping("/notes/batch")
+	@ApiOperation(value = "Add notes in batch, returns outcome of every note", response = NotesBatchResultTO.class)
+	public Mono<NotesBatchResultTO> createNotes(
+	        @RequestBody @ApiParam(value = "notes to be added", required = true) List<NoteTO> inputNotes) {
+		return notesService.createNotes(inputNotes);
+	}
+
+	@PutMapping("/notes/batch")
+	@ApiOperation(value = "Update notes in batch, returns outcome of every note", response = NotesBatchResultTO.class)
+	public Mono<NotesBatchResultTO> updateNotes(
+	        @RequestBody @ApiParam(value = "notes to update with their noteID", required = true) List<NoteTO> inputNotes) {
+		return notesService.updateNotes(inputNotes);
+	}
+
+	@DeleteMapping("/notes/batch")
+	@ApiOperation(value = "Delete notes in batch, returns outcome of every note", response = NotesBatchResultTO.class)
+	public Mono<NotesBatchResultTO> deleteNotes(
+	        @RequestBody @ApiParam(value = "ids of notes to be deleted", required = true) List<String> noteIDs) {
+		return notesService.deleteNotes(noteIDs);
+	}
+
+	@GetMapping("/notes/{noteID}")
+	@ApiOperation(value = "Search note,returns note if found", response = NoteTO.class)
+	public Mono<NoteTO> searchNote(@PathVariable @ApiParam(value = "note id to search") String noteID) {
+		return notesService.searchNote(noteID);
+	}
+
+	@GetMapping("/notes/stats/{noteID}")
+	@ApiOperation(value = "returns notes statistics", response = NoteTO.class)
+	public Mono<Map<String, Integer>> notesStats(@PathVariable @ApiParam(value = "notes id to search") String noteID,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "number of most frequent words, 0 for all stored, at most notes.stats.max-words (1000 by default) when it is set") int top) {
+		return notesService.statsPerNote(noteID, top);
+	}
+
+	@GetMapping("/notes")
+	@ApiOperation(value = "Fetch all available notes in the system,returns available notes")
+	public Flux<NoteTO> listNotes() {
+		return notesService.listNotes();
+	}
+
+	/*
+	 * ndjson is written line by line as notes arrive, demand of slow client is
+	 * propagated to database cursor
+	 */
+	@GetMapping(value = "/notes/stream", produces = AppConstants.NDJSON_MEDIA_TYPE)
+	@ApiOperation(value = "Stream available notes as newline delimited JSON ordered by id, when limit is reached last line carries continuationToken to resume listing")
+	public Flux<Object> streamNotes(
+	        @RequestParam(required = false) @ApiParam(value = "token returned by previous stream") String continuationToken,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "max notes to return, 0 for all") int limit) {
+		return notesService.streamNotes(continuationToken, limit);
+	}
+
+	@GetMapping("/notes/summary")
+	@ApiOperation(value = "Fetch all available notes in the system only title and text , supports pagination, filter by tags and sort by create date descending")
+	public Flux<NotesSummaryTO> listNotesSummary(@RequestParam(defaultValue = "0") int page,
+	        @RequestParam(defaultValue = "20") int size, @RequestParam(required = false) String[] filters) {
+		return notesService.listNotesSummary(page, size, filters);
+	}
+
+	@GetMapping("/notes/summary/keyset")
+	@ApiOperation(value = "Fetch notes summary page after given cursor sorted by create date descending, supports filter by tags, returns cursor of next page")
+	public Mono<NotesPageTO<NotesSummaryTO>> listNotesSummaryAfter(
+	        @RequestParam(required = false) @ApiParam(value = "nextCursor of previous page, empty for first page") String cursor,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size,
+	        @RequestParam(required = false) @ApiParam(value = "tags to filter") String[] filters) {
+		return notesService.listNotesSummaryAfter(cursor, size, filters);
+	}
+
+	@GetMapping("/notes/search")
+	@ApiOperation(value = "Search notes by words of their title and text, returns notes summary ordered by relevance with score, supports pagination")
+	public Flux<NotesSummaryTO> searchNotes(
+	        @RequestParam @ApiParam(value = "words or \"phrases\" to search, -word excludes notes containing it", required = true) String q,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "page number") int page,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size) {
+		return notesService.searchNotes(q, page, size);
+	}
+
+	@GetMapping("/notes/match")
+	@ApiOperation(value = "Fetch summary of notes having tags and all words in title or text, sorted by create date descending, supports pagination")
+	public Flux<NotesSummaryTO> matchNotes(
+	        @RequestParam(required = false) @ApiParam(value = "tags to filter") String[] tags,
+	        @RequestParam(defaultValue = "ALL") @ApiParam(value = "notes having ANY, ALL or NONE of tags match") TagMatch match,
+	        @RequestParam(required = false) @ApiParam(value = "words notes must contain, case insensitive") String q,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "page number") int page,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size) {
+		return notesService.matchNotes(tags, match, q, page, size);
+	}
+
+	@GetMapping("/notes/tags/facets")
+	@ApiOperation(value = "Fetch number of notes carrying every tag, optionally of notes created within date range")
+	public Mono<Map<String, Long>> tagFacets(
+	        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @ApiParam(value = "first creation day as yyyy-MM-dd") LocalDate from,
+	        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @ApiParam(value = "last creation day as yyyy-MM-dd") LocalDate to) {
+		return notesService.tagFacets(from, to);
+	}
+
+	@GetMapping("/notes/tagged")
+	@ApiOperation(value = "Fetch notes having ANY, ALL or NONE of tags, supports pagination and sort by create date or title")
+	public Flux<NoteTO> listNotesFiltered(
+	        @RequestParam @ApiParam(value = "tags to filter", required = true) List<String> tags,
+	        @RequestParam(defaultValue = "ALL") @ApiParam(value = "notes having ANY, ALL or NONE of tags match") TagMatch match,
+	        @RequestParam(defaultValue = "0") @ApiParam(value = "page number") int page,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size,
+	        @RequestParam(defaultValue = "createDate") @ApiParam(value = "createDate or noteTitle") String sortBy,
+	        @RequestParam(defaultValue = "DESC") @ApiParam(value = "ASC or DESC") Sort.Direction direction) {
+		return notesService.listNotesFiltered(tags, match, page, size, sortBy, direction);
+	}
+
+	@GetMapping("/notes/keyset")
+	@ApiOperation(value = "Fetch notes page after given cursor sorted by create date descending, returns cursor of next page")
+	public Mono<NotesPageTO<NoteTO>> listNotesAfter(
+	        @RequestParam(required = false) @ApiParam(value = "nextCursor of previous page, empty for first page") String cursor,
+	        @RequestParam(defaultValue = "20") @ApiParam(value = "page size") int size) {
+		return notesService.listNotesAfter(cursor, size);
+	}
+
+	/**
+	 * Text is read from resource off event loop as response is written, single
+	 * byte range of Range header is answered with requested bytes only and
+	 * several ranges with whole text
+	 */
+	@GetMapping("/notes/text/{noteID}")
+	@ApiOperation(value = "returns note's text, supports byte ranges", response = String.class)
+	public Mono<ResponseEntity<Flux<DataBuffer>>> notesText(
+	        @PathVariable @ApiParam(value = "note id to search") String noteID, @RequestHeader HttpHeaders headers) {
+		return notesService.getNotesText(noteID)
+		                   .map(text -> textResponse(text, headers));
+	}
+
+	@PutMapping("/notes/{noteID}")
+	@ApiOperation(value = "Update note in the system ,returns modified note details", response = NoteTO.class)
+	public Mono<NoteTO> updateNote(@Valid @RequestBody @ApiParam(value = "Note to update") NoteTO input,
+	        @PathVariable @ApiParam(value = "noteID which needs to be updated") String noteID) {
+		input.setNoteID(noteID);
+		return notesService.updateNote(input);
+	}
+
+	@DeleteMapping("/notes/{noteID}")
+	@ApiOperation(value = "Delete note in the system ,returns 200 success OK upon succesful deletion")
+	Mono<Void> deleteNote(@PathVariable @ApiParam(value = "note id to be deleted") String noteID) {
+		return notesService.deleteNote(noteID)
+		                   .then();
+	}
+
+	private static ResponseEntity<Flux<DataBuffer>> textResponse(Resource text, HttpHeaders headers) {
+		long length;
+		try {
+			length = text.contentLength();
+		} catch (IOException ex) {
+			throw new DataNotFoundException("Unable to read note text", ex);
+		}
+		List<HttpRange> ranges;
+		long start;
+		long end;
+		try {
+			ranges = headers.getRange();
+			start = ranges.size() == 1 ? ranges.get(0)
+			                                   .getRangeStart(length) : 0;
+			end = ranges.size() == 1 ? ranges.get(0)
+			                                 .getRangeEnd(length) : length - 1;
+			if (ranges.size() == 1 && start > end) {
+				throw new IllegalArgumentException("Range starts after end of text");
+			}
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+			                     .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+			                     .build();
+		}
+		ResponseEntity.BodyBuilder response = ranges.size() == 1 ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+		                                                                         .header(HttpHeaders.CONTENT_RANGE,
+		                                                                                 "bytes " + start + "-" + end
+		                                                                                         + "/" + length)
+		        : ResponseEntity.ok();
+		return response.contentType(MediaType.parseMediaType(AppConstants.TEXT_MEDIA_TYPE))
+		               .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+		               .contentLength(end - start + 1)
+		               .body(read(text, start, end - start + 1));
+	}
+
+	/**
+	 * Reads count bytes from position, stream is skipped to position so that text
+	 * held in file is read from chunk holding position
+	 */
+	private static Flux<DataBuffer> read(Resource text, long position, long count) {
+		Flux<DataBuffer> buffers = DataBufferUtils.readInputStream(() -> {
+			InputStream stream = text.getInputStream();
+			long skipped = 0;
+			while (skipped < position) {
+				long step = stream.skip(position - skipped);
+				if (step <= 0) {
+					if (stream.read() < 0) {
+						break;
+					}
+					step = 1;
+				}
+				skipped += step;
+			}
+			return stream;
+		}, DefaultDataBufferFactory.sharedInstance, AppConstants.TEXT_BUFFER_SIZE);
+		return DataBufferUtils.takeUntilByteCount(buffers, count)
+		                      .subscribeOn(Schedulers.boundedElastic());
+	}
+
+}
@@ -2,15 +2,31 @@ package com.mycomp.notesApp.domain;
 
 import java.time.LocalDateTime;
 import java.util.List;
+
+import com.mycomp.notesApp.utils.TextCompression;
+
+import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 import io.swagger.annotations.ApiModelProperty;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
+@Document(collection = "note")
+@CompoundIndexes({
+        @CompoundIndex(name = "tags_createDate_id", def = "{ 'tags' : 1, 'createDate' : -1, '_id' : -1 }"),
+        @CompoundIndex(name = "createDate_id", def = "{ 'createDate' : -1, '_id' : -1 }") })
 public class Note {
 
 	@ApiModelProperty(notes = "Notes's id")
@@ -18,6 +34,8 @@ public class Note {
 	private String noteID;
 	
 	@ApiModelProperty(notes = "Notes's title")
+	@Indexed(name = "noteTitle_unique", unique = true)
+	@TextIndexed(weight = 3)
 	private String noteTitle;
 
 	@ApiModelProperty(notes = "Note's create date")
@@ -26,10 +44,86 @@ public class Note {
 	@ApiModelProperty(notes = "Notes's update id")
 	private LocalDateTime updateDate;
 
+	/*
+	 * left out of toString so that logging a note never renders or inflates its
+	 * text
+	 */
 	@ApiModelProperty(notes = "Notes's Text")
+	@TextIndexed
+	@ToString.Exclude
 	private String noteText;
 
+	/*
+	 * text stored compressed when longer than compression threshold, text is
+	 * inflated from it on first read
+	 */
+	@ApiModelProperty(notes = "Notes's Text compressed with Deflate")
+	@Setter(AccessLevel.NONE)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private byte[] noteTextDeflated;
+
+	/*
+	 * GridFS file holding UTF-8 text of very large notes, such text is never
+	 * loaded with note and is read as stream
+	 */
+	@ApiModelProperty(notes = "Id of file holding Notes's Text")
+	private ObjectId noteTextFileID;
+
+	@ApiModelProperty(notes = "Length of Notes's Text held in file, in bytes")
+	private Long noteTextLength;
+
 	@ApiModelProperty(notes = "Notes's tags")
 	private List<String>  tags;
 
+	/*
+	 * incremented by every update, notes written before versions were
+	 * introduced read as version 0
+	 */
+	@ApiModelProperty(notes = "Notes's version, incremented on every update")
+	private long version;
+
+	/*
+	 * relevance computed by text search, read only and never stored
+	 */
+	@TextScore
+	private Float score;
+
+	public Note(String noteID, String noteTitle, LocalDateTime createDate, LocalDateTime updateDate, String noteText,
+	        List<String> tags, Float score) {
+		this.noteID = noteID;
+		this.noteTitle = noteTitle;
+		this.createDate = createDate;
+		this.updateDate = updateDate;
+		this.noteText = noteText;
+		this.tags = tags;
+		this.score = score;
+	}
+
+	/**
+	 * Inflated text is kept but compressed text is not dropped, so that note
+	 * shared between threads never reads as having no text. Text held in file is
+	 * not loaded and reads as null
+	 */
+	public String getNoteText() {
+		if (noteText == null && noteTextDeflated != null) {
+			noteText = TextCompression.inflate(noteTextDeflated);
+		}
+		return noteText;
+	}
+
+	public void setNoteText(String noteText) {
+		this.noteText = noteText;
+		this.noteTextDeflated = null;
+		this.noteTextFileID = null;
+		this.noteTextLength = null;
+	}
+
+	/**
+	 * @return true when text is held in file instead of note
+	 */
+	public boolean isTextInFile() {
+		return noteText == null && noteTextFileID != null;
+	}
+
 }
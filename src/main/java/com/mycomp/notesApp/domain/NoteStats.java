@@ -0,0 +1,35 @@
+package com.mycomp.notesApp.domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Word statistics of a note, computed when note text is written and kept in
+ * its own collection so that note reads don't carry it
+ * 
+ * @author Rahil
+ *
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "noteStats")
+public class NoteStats {
+
+	@ApiModelProperty(notes = "Id of note these statistics belong to")
+	@Id
+	private String noteID;
+
+	@ApiModelProperty(notes = "Most frequent words ordered by count descending")
+	private List<WordCount> words;
+
+	@ApiModelProperty(notes = "Statistics computation date")
+	private LocalDateTime computeDate;
+
+}
@@ -0,0 +1,32 @@
+package com.mycomp.notesApp.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Revision of note collection, incremented after every note write so that
+ * listings can tell whether anything changed without reading notes
+ * 
+ * @author Rahil
+ *
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "notesRevision")
+public class NotesRevision {
+
+	public static final String NOTES = "notes";
+
+	@ApiModelProperty(notes = "Name of revised collection")
+	@Id
+	private String name;
+
+	@ApiModelProperty(notes = "Number of writes made to collection")
+	private long revision;
+
+}
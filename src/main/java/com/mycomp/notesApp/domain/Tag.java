@@ -0,0 +1,27 @@
+package com.mycomp.notesApp.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tag allowed on notes in addition to configured ones, tags added to its
+ * collection are picked up without restart
+ * 
+ * @author Rahil
+ *
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "tag")
+public class Tag {
+
+	@ApiModelProperty(notes = "Tag's name as used on notes")
+	@Id
+	private String name;
+
+}
@@ -0,0 +1,30 @@
+package com.mycomp.notesApp.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of notes carrying a tag, incremented and decremented as notes are
+ * written so that it is known without counting notes
+ * 
+ * @author Rahil
+ *
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "tagCount")
+public class TagCount {
+
+	@ApiModelProperty(notes = "Tag's name as used on notes")
+	@Id
+	private String tag;
+
+	@ApiModelProperty(notes = "Number of notes with tag")
+	private long count;
+
+}
@@ -0,0 +1,40 @@
+package com.mycomp.notesApp.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of notes carrying a tag created on a day. Id starts with the day so
+ * that counters of a date range are read by id range
+ * 
+ * @author Rahil
+ *
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "tagDayCount")
+public class TagDayCount {
+
+	@ApiModelProperty(notes = "Day and tag as yyyy-MM-dd/tag")
+	@Id
+	private String id;
+
+	@ApiModelProperty(notes = "Tag's name as used on notes")
+	private String tag;
+
+	@ApiModelProperty(notes = "Creation day of notes as yyyy-MM-dd")
+	private String day;
+
+	@ApiModelProperty(notes = "Number of notes with tag created on day")
+	private long count;
+
+	public static String id(String day, String tag) {
+		return day + "/" + tag;
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.mycomp.notesApp.domain;
+
+/**
+ * How tags passed to a tag filter are matched against note's tags
+ * 
+ * ANY - note has at least one of tags, ALL - note has every tag, NONE - note
+ * has none of tags
+ * 
+ * @author Rahil
+ *
+ */
+public enum TagMatch {
+	ANY, ALL, NONE;
+}
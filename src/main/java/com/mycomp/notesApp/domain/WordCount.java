@@ -0,0 +1,25 @@
+package com.mycomp.notesApp.domain;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of occurrences of a word in note's text
+ * 
+ * @author Rahil
+ *
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WordCount {
+
+	@ApiModelProperty(notes = "Normalized word")
+	private String word;
+
+	@ApiModelProperty(notes = "Occurrences of word")
+	private int count;
+
+}
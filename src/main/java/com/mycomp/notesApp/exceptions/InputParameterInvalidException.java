@@ -1,5 +1,9 @@
 package com.mycomp.notesApp.exceptions;
 
+import java.util.List;
+
+import com.mycomp.notesApp.errors.ApiValidationError;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import lombok.AllArgsConstructor;
@@ -15,6 +19,7 @@ public class InputParameterInvalidException extends RuntimeException {
 	private String fieldName;
 	private String fieldValue;
 	private String objectName;
+	private List<ApiValidationError> violations;
 	/**
 	 * Unique ID for Serialized object
 	 */
@@ -42,4 +47,9 @@ public class InputParameterInvalidException extends RuntimeException {
 		this.fieldName = fieldName;
 		this.fieldValue = fieldValue;
 	}
+
+	public InputParameterInvalidException(String errorMessage, List<ApiValidationError> violations) {
+		super(errorMessage);
+		this.violations = violations;
+	}
 }
@@ -0,0 +1,29 @@
+package com.mycomp.notesApp.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import io.swagger.annotations.ApiModel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@ResponseStatus(value = HttpStatus.PRECONDITION_FAILED, reason = "Data changed since it was read")
+@Data
+@AllArgsConstructor
+@ApiModel(description = "Exception to be thrown when data to be changed is not in the version client expects")
+@EqualsAndHashCode(callSuper = false)
+public class PreconditionFailedException extends RuntimeException {
+
+	private String errorMessage;
+	private Throwable exception;
+	/**
+	 * Unique ID for Serialized object
+	 */
+	private static final long serialVersionUID = -8790211652911971729L;
+
+	public PreconditionFailedException(String errorMessage) {
+		super(errorMessage);
+	}
+
+}
@@ -0,0 +1,251 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import com.mycomp.notesApp.domain.Note;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver.IndexDefinitionHolder;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexedFieldSpec;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class creates indexes declared on {@link Note} at startup and verifies
+ * with explain plan that every query issued by {@link NotesRepository} is
+ * served by an index. Depending on configured mode problems are either logged
+ * or fail application startup. Single note writes rely on unique index on title
+ * to reject same title, its absence fails startup whatever the mode. When
+ * indexes can't be listed, titles are checked by note services instead
+ *
+ * @author Rahil
+ *
+ */
+@Component
+@Slf4j
+public class NoteIndexManager implements InitializingBean {
+
+	public enum Mode {
+		OFF, WARN, FAIL;
+	}
+
+	/* index rejecting notes of same title */
+	private static final String TITLE_INDEX = "noteTitle_unique";
+
+	private static final Set<String> UNINDEXED_STAGES = Collections.unmodifiableSet(
+	        new TreeSet<>(Arrays.asList("COLLSCAN", "SORT")));
+
+	@Autowired
+	protected MongoTemplate mongoTemplate;
+
+	@Autowired
+	protected MongoMappingContext mappingContext;
+
+	@Value("${notes.indexes.mode:WARN}")
+	protected Mode mode;
+
+	private volatile boolean titleUnique;
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (mode == Mode.OFF) {
+			log.info("Note index provisioning is disabled");
+		} else {
+			provisionIndexes();
+		}
+		verifyTitleIndex();
+	}
+
+	/**
+	 * @return true when unique index on title is known to be in place, note
+	 *         services check titles themselves otherwise
+	 */
+	public boolean isTitleUnique() {
+		return titleUnique;
+	}
+
+	private void provisionIndexes() {
+		List<String> problems = new ArrayList<>();
+		try {
+			ensureIndexes(problems);
+			verifyQueryPlans(problems);
+		} catch (Exception ex) {
+			problems.add("Unable to provision note indexes : " + ex.getMessage());
+		}
+		if (problems.isEmpty()) {
+			log.info("Note indexes are in place and cover all repository queries");
+			return;
+		}
+		problems.forEach(log::warn);
+		if (mode == Mode.FAIL) {
+			throw new IllegalStateException("Note indexes are not in place : " + problems);
+		}
+	}
+
+	/**
+	 * Fails startup when unique index on title is missing, as notes of same
+	 * title would then be saved
+	 */
+	private void verifyTitleIndex() {
+		Set<String> existing;
+		try {
+			existing = indexNames();
+		} catch (Exception ex) {
+			log.warn("Unable to verify index {}, note titles are checked before single note writes : {}",
+			        TITLE_INDEX, ex.getMessage());
+			return;
+		}
+		if (!existing.contains(TITLE_INDEX)) {
+			throw new IllegalStateException("Index " + TITLE_INDEX + " is missing, notes of same title would be saved");
+		}
+		titleUnique = true;
+	}
+
+	private Set<String> indexNames() {
+		return mongoTemplate.indexOps(Note.class)
+		                    .getIndexInfo()
+		                    .stream()
+		                    .map(IndexInfo::getName)
+		                    .collect(Collectors.toSet());
+	}
+
+	/**
+	 * Creates indexes resolved from mapping annotations, existing indexes are left
+	 * untouched by database
+	 */
+	private void ensureIndexes(List<String> problems) {
+		IndexOperations indexOps = mongoTemplate.indexOps(Note.class);
+		List<String> expected = new ArrayList<>();
+		for (IndexDefinition definition : indexDefinitions()) {
+			String name = String.valueOf(definition.getIndexOptions()
+			                                       .get("name"));
+			expected.add(name);
+			try {
+				indexOps.ensureIndex(definition);
+			} catch (Exception ex) {
+				problems.add("Unable to create index " + name + " : " + ex.getMessage());
+			}
+		}
+		Set<String> existing = indexNames();
+		expected.stream()
+		        .filter(name -> !existing.contains(name))
+		        .forEach(name -> problems.add("Index " + name + " is missing"));
+	}
+
+	/**
+	 * @return indexes declared on note, text index also covers words kept for
+	 *         compressed text by {@link NoteTextCompressor}
+	 */
+	List<IndexDefinition> indexDefinitions() {
+		List<IndexDefinition> definitions = new ArrayList<>();
+		for (IndexDefinition definition : IndexResolver.create(mappingContext)
+		                                               .resolveIndexFor(Note.class)) {
+			IndexDefinition resolved = ((IndexDefinitionHolder) definition).getIndexDefinition();
+			if (resolved instanceof TextIndexDefinition) {
+				((TextIndexDefinition) resolved).addFieldSpec(
+				        new TextIndexedFieldSpec(NoteTextCompressor.TEXT_WORDS));
+			}
+			definitions.add(definition);
+		}
+		return definitions;
+	}
+
+	/**
+	 * Runs explain for representative shape of each repository query and reports
+	 * queries whose winning plan scans collection or sorts in memory
+	 */
+	private void verifyQueryPlans(List<String> problems) {
+		String collection = mongoTemplate.getCollectionName(Note.class);
+		for (Map.Entry<String, Document[]> shape : queryShapes().entrySet()) {
+			Document find = new Document("find", collection).append("filter", shape.getValue()[0])
+			                                                .append("sort", shape.getValue()[1])
+			                                                .append("limit", 1);
+			Document explain = mongoTemplate.executeCommand(
+			        new Document("explain", find).append("verbosity", "queryPlanner"));
+			Document winningPlan = explain.get("queryPlanner", Document.class)
+			                              .get("winningPlan", Document.class);
+			Set<String> stages = new TreeSet<>();
+			collectStages(winningPlan, stages);
+			stages.retainAll(UNINDEXED_STAGES);
+			if (stages.isEmpty()) {
+				log.info("Query {} is covered by index", shape.getKey());
+			} else {
+				problems.add("Query " + shape.getKey() + " is not covered by index, plan uses " + stages);
+			}
+		}
+	}
+
+	private static void collectStages(Document plan, Set<String> stages) {
+		if (plan == null) {
+			return;
+		}
+		stages.add(plan.getString("stage"));
+		collectStages(plan.get("inputStage", Document.class), stages);
+		List<?> inputStages = plan.get("inputStages", List.class);
+		if (inputStages != null) {
+			inputStages.forEach(stage -> collectStages((Document) stage, stages));
+		}
+	}
+
+	/**
+	 * Filter and sort of each query issued by NotesRepository, sample values only
+	 * need to have right type
+	 */
+	private static Map<String, Document[]> queryShapes() {
+		Document noSort = new Document();
+		Document byCreateDate = new Document("createDate", -1);
+		Document byCreateDateAndId = new Document("createDate", -1).append("_id", -1);
+		Document allOfTags = new Document("tags", new Document("$all", Collections.singletonList("BUSINESS")));
+		Document afterPosition = new Document("$or",
+		        Arrays.asList(new Document("createDate", new Document("$lt", new Date())),
+		                new Document("createDate", new Date()).append("_id",
+		                        new Document("$lt", new ObjectId())),
+		                new Document("createDate", null)));
+		Map<String, Document[]> shapes = new LinkedHashMap<>();
+		shapes.put("findByNoteTitle", new Document[] { new Document("noteTitle", "title"), noSort });
+		shapes.put("findByNoteID", new Document[] { new Document("_id", new ObjectId()), noSort });
+		shapes.put("findTitlesIn", new Document[] {
+		        new Document("noteTitle", new Document("$in", Arrays.asList("title", "other title"))), noSort });
+		shapes.put("findTitlesByNoteIDIn", new Document[] {
+		        new Document("_id", new Document("$in", Arrays.asList(new ObjectId(), new ObjectId()))), noSort });
+		shapes.put("findTaggedPage ALL", new Document[] { allOfTags, byCreateDateAndId });
+		shapes.put("findTaggedPage ANY", new Document[] {
+		        new Document("tags", new Document("$in", Arrays.asList("BUSINESS", "PERSONAL"))), byCreateDateAndId });
+		// tags can't bound index scan of $nin, sort index is scanned instead
+		shapes.put("findTaggedPage NONE", new Document[] {
+		        new Document("tags", new Document("$nin", Arrays.asList("BUSINESS", "PERSONAL"))), byCreateDateAndId });
+		shapes.put("findSummaryPage", new Document[] { new Document(), byCreateDate });
+		shapes.put("findTaggedSummaryPage", new Document[] { allOfTags, byCreateDate });
+		shapes.put("findPageAfter", new Document[] { afterPosition, byCreateDateAndId });
+		shapes.put("findUndatedPageAfter", new Document[] {
+		        new Document("createDate", null).append("_id", new Document("$lt", new ObjectId())),
+		        byCreateDateAndId });
+		Document taggedAfterPosition = new Document(allOfTags).append("$or", afterPosition.get("$or"));
+		shapes.put("findTaggedSummaryPageAfter", new Document[] { taggedAfterPosition, byCreateDateAndId });
+		// sort by text score always happens in memory over matches, only index use of filter is checked
+		shapes.put("searchSummaryPage", new Document[] { new Document("$text", new Document("$search", "title")),
+		        noSort });
+		return shapes;
+	}
+}
@@ -0,0 +1,453 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagMatch;
+import com.mycomp.notesApp.utils.TextStatisticsEngine;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In memory inverted index of notes mirroring note collection, maps tags and
+ * case folded words of title and text to compressed bitmaps of note ordinals so
+ * that tag and word filters are answered by bitmap intersection and union, DB is
+ * only hit to fetch notes of requested page.
+ *
+ * Ordinals are dense ints assigned in creation order, index is loaded sorted by
+ * create date and notes added later get next ordinal, so highest ordinals are
+ * newest notes. Ordinals of removed notes are not reused until index is rebuilt.
+ * Index is kept in sync by note service writes and rebuilt from DB at startup,
+ * it is disabled unless notes.inverted-index.enabled is set.
+ *
+ * Words are matched as whole case folded tokens. Text index used by DB when
+ * this index is disabled or not loaded also stems words and skips stop words,
+ * so "plans" matches note having "plan" there but not here, and a stop word
+ * like "the" filters notes here while DB ignores it
+ *
+ * @author Rahil
+ *
+ */
+@Component
+@Slf4j
+public class NoteInvertedIndex {
+
+	private static final String TAG_PREFIX = "#";
+
+	private static final int MIN_CAPACITY = 1024;
+
+	@Autowired
+	protected MongoTemplate mongoTemplate;
+
+	@Autowired
+	protected NoteTextStore textStore;
+
+	@Value("${notes.inverted-index.enabled:false}")
+	protected boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private Postings current = new Postings();
+
+	/* writes made while index is rebuilt, replayed on rebuilt postings */
+	private List<Consumer<Postings>> pending;
+
+	private volatile boolean ready;
+
+	/**
+	 * @return true when index is loaded and can answer queries
+	 */
+	public boolean isReady() {
+		return enabled && ready;
+	}
+
+	/**
+	 * Loads index from DB once application is started, see
+	 * {@link #load(Iterator)}
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			log.info("Note inverted index is disabled");
+			return;
+		}
+		Query query = new Query().with(Sort.by("createDate", "noteID")
+		                                   .ascending());
+		includeText(query);
+		long start = System.currentTimeMillis();
+		try (CloseableIterator<Note> notes = mongoTemplate.stream(query, Note.class)) {
+			load(notes);
+		} catch (Exception ex) {
+			ready = false;
+			log.error("Unable to load note inverted index, notes are filtered by DB : {}", ex.getMessage());
+			return;
+		}
+		log.info("Note inverted index loaded {} notes in {} ms", size(), System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Replaces index content with notes, notes are expected in creation order.
+	 * Notes are indexed into new postings without lock, queries are answered by
+	 * current postings meanwhile. Writes made during load are applied to both and
+	 * replayed on new postings when they are swapped in under lock
+	 */
+	public void load(Iterator<Note> notes) {
+		lock.writeLock()
+		    .lock();
+		try {
+			pending = new ArrayList<>();
+		} finally {
+			lock.writeLock()
+			    .unlock();
+		}
+		Postings loaded = new Postings();
+		try {
+			while (notes.hasNext()) {
+				Note note = notes.next();
+				readText(note);
+				loaded.index(note);
+			}
+		} catch (RuntimeException ex) {
+			loaded = null;
+			throw ex;
+		} finally {
+			swap(loaded);
+		}
+	}
+
+	/**
+	 * Adds created notes or replaces terms of modified notes, notes must carry
+	 * title, text and tags as stored
+	 */
+	public void putAll(Collection<Note> notes) {
+		if (!enabled || notes.isEmpty()) {
+			return;
+		}
+		// text held in file is read before index is locked
+		notes.forEach(this::readText);
+		write(target -> notes.forEach(target::index));
+	}
+
+	public void put(Note note) {
+		putAll(Collections.singletonList(note));
+	}
+
+	/**
+	 * Reindexes notes modified partially by reading them back from DB, notes no
+	 * longer found are removed. Failure is only logged, index is corrected by next
+	 * write of the notes or rebuild
+	 */
+	public void refresh(Collection<String> changedIDs) {
+		if (!enabled || changedIDs.isEmpty()) {
+			return;
+		}
+		List<Note> notes;
+		try {
+			Query query = Query.query(Criteria.where("noteID")
+			                                  .in(changedIDs));
+			includeText(query);
+			notes = mongoTemplate.find(query, Note.class);
+		} catch (Exception ex) {
+			log.error("Unable to refresh {} notes of inverted index : {}", changedIDs.size(), ex.getMessage());
+			return;
+		}
+		Set<String> missing = new HashSet<>(changedIDs);
+		notes.forEach(note -> missing.remove(note.getNoteID()));
+		putAll(notes);
+		removeAll(missing);
+	}
+
+	public void removeAll(Collection<String> removedIDs) {
+		if (!enabled || removedIDs.isEmpty()) {
+			return;
+		}
+		write(target -> removedIDs.forEach(target::remove));
+	}
+
+	public void remove(String noteID) {
+		removeAll(Collections.singletonList(noteID));
+	}
+
+	/**
+	 * Finds notes having tags and all words of their title or text, smallest
+	 * posting lists are intersected first
+	 *
+	 * @param tags   - tags to filter, null or empty for any
+	 * @param match  - how tags are matched
+	 * @param words  - words notes must contain, case insensitive and not stemmed,
+	 *               null for any
+	 * @param offset - number of matching notes to skip
+	 * @param limit  - max notes to return
+	 * @return ids of matching notes ordered newest first
+	 */
+	public List<String> match(Collection<String> tags, TagMatch match, String words, long offset, int limit) {
+		lock.readLock()
+		    .lock();
+		try {
+			return current.match(tags, match, words, offset, limit);
+		} finally {
+			lock.readLock()
+			    .unlock();
+		}
+	}
+
+	/**
+	 * @return number of notes in index
+	 */
+	public int size() {
+		lock.readLock()
+		    .lock();
+		try {
+			return current.live.getCardinality();
+		} finally {
+			lock.readLock()
+			    .unlock();
+		}
+	}
+
+	/**
+	 * Projects notes to fields index is built from, text may be held in note,
+	 * compressed in note or in file
+	 */
+	private static void includeText(Query query) {
+		query.fields()
+		     .include("noteTitle")
+		     .include("noteText")
+		     .include("noteTextDeflated")
+		     .include("noteTextFileID")
+		     .include("noteTextLength")
+		     .include("tags");
+	}
+
+	/**
+	 * Reads text of note held in file into note, so that such notes are indexed
+	 * with their text as when they are written
+	 */
+	private void readText(Note note) {
+		if (note.isTextInFile()) {
+			note.setNoteText(textStore.read(note));
+		}
+	}
+
+	/**
+	 * Replays writes recorded during load on loaded postings and makes them
+	 * current, current postings are kept when load failed
+	 */
+	private void swap(Postings loaded) {
+		lock.writeLock()
+		    .lock();
+		try {
+			if (loaded != null) {
+				pending.forEach(write -> write.accept(loaded));
+				loaded.optimize();
+				current = loaded;
+				ready = true;
+			}
+			pending = null;
+		} finally {
+			lock.writeLock()
+			    .unlock();
+		}
+	}
+
+	/**
+	 * Applies write to current postings under lock, and records it to be replayed
+	 * when index is being loaded
+	 */
+	private void write(Consumer<Postings> write) {
+		lock.writeLock()
+		    .lock();
+		try {
+			write.accept(current);
+			if (pending != null) {
+				pending.add(write);
+			}
+		} finally {
+			lock.writeLock()
+			    .unlock();
+		}
+	}
+
+	/**
+	 * Ordinals, dictionary and posting lists of notes, built once per load and
+	 * modified by writes afterwards
+	 */
+	private static final class Postings {
+
+		private final Map<String, Integer> ordinals = new HashMap<>();
+
+		/* note id and term ids of note, indexed by ordinal */
+		private String[] noteIDs = new String[MIN_CAPACITY];
+		private int[][] noteTerms = new int[MIN_CAPACITY][];
+		private int nextOrdinal;
+
+		/* posting list of ordinals, indexed by term id */
+		private final Map<String, Integer> termIDs = new HashMap<>();
+		private final List<RoaringBitmap> postings = new ArrayList<>();
+
+		private final RoaringBitmap live = new RoaringBitmap();
+
+		private List<String> match(Collection<String> tags, TagMatch match, String words, long offset, int limit) {
+			RoaringBitmap matching = matching(tags, match, words);
+			long cardinality = matching.getLongCardinality();
+			List<String> page = new ArrayList<>();
+			for (long i = offset; i < cardinality && page.size() < limit; i++) {
+				page.add(noteIDs[matching.select((int) (cardinality - 1 - i))]);
+			}
+			return page;
+		}
+
+		private RoaringBitmap matching(Collection<String> tags, TagMatch match, String words) {
+			List<RoaringBitmap> required = new ArrayList<>();
+			RoaringBitmap excluded = null;
+			if (tags != null && !tags.isEmpty()) {
+				List<RoaringBitmap> tagged = new ArrayList<>();
+				for (String tag : new HashSet<>(tags)) {
+					RoaringBitmap posting = posting(TAG_PREFIX + tag);
+					if (posting != null) {
+						tagged.add(posting);
+					} else if (match == TagMatch.ALL) {
+						return new RoaringBitmap();
+					}
+				}
+				if (match == TagMatch.ALL) {
+					required.addAll(tagged);
+				} else if (match == TagMatch.ANY) {
+					if (tagged.isEmpty()) {
+						return new RoaringBitmap();
+					}
+					required.add(FastAggregation.or(tagged.iterator()));
+				} else if (!tagged.isEmpty()) {
+					excluded = FastAggregation.or(tagged.iterator());
+				}
+			}
+			for (String word : TextStatisticsEngine.distinctWords(words, true)) {
+				RoaringBitmap posting = posting(word);
+				if (posting == null) {
+					return new RoaringBitmap();
+				}
+				required.add(posting);
+			}
+			if (required.isEmpty()) {
+				return excluded == null ? live : RoaringBitmap.andNot(live, excluded);
+			}
+			required.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+			RoaringBitmap matching = required.get(0)
+			                                 .clone();
+			for (int i = 1; i < required.size() && !matching.isEmpty(); i++) {
+				matching.and(required.get(i));
+			}
+			if (excluded != null) {
+				matching.andNot(excluded);
+			}
+			return matching;
+		}
+
+		private RoaringBitmap posting(String term) {
+			Integer termID = termIDs.get(term);
+			return termID == null ? null : postings.get(termID);
+		}
+
+		private void index(Note note) {
+			Integer ordinal = ordinals.get(note.getNoteID());
+			if (ordinal == null) {
+				ordinal = newOrdinal(note.getNoteID());
+			} else {
+				unindex(ordinal);
+			}
+			int[] terms = terms(note);
+			for (int termID : terms) {
+				postings.get(termID)
+				        .add(ordinal);
+			}
+			noteTerms[ordinal] = terms;
+			live.add(ordinal);
+		}
+
+		private void unindex(int ordinal) {
+			for (int termID : noteTerms[ordinal]) {
+				postings.get(termID)
+				        .remove(ordinal);
+			}
+			noteTerms[ordinal] = null;
+		}
+
+		private void remove(String noteID) {
+			Integer ordinal = ordinals.remove(noteID);
+			if (ordinal != null) {
+				unindex(ordinal);
+				noteIDs[ordinal] = null;
+				live.remove(ordinal);
+			}
+		}
+
+		private void optimize() {
+			postings.forEach(RoaringBitmap::runOptimize);
+		}
+
+		private int newOrdinal(String noteID) {
+			if (nextOrdinal == noteIDs.length) {
+				noteIDs = Arrays.copyOf(noteIDs, nextOrdinal * 2);
+				noteTerms = Arrays.copyOf(noteTerms, nextOrdinal * 2);
+			}
+			int ordinal = nextOrdinal++;
+			noteIDs[ordinal] = noteID;
+			ordinals.put(noteID, ordinal);
+			return ordinal;
+		}
+
+		/**
+		 * @return distinct term ids of note's tags and words, terms seen first time
+		 *         are added to dictionary
+		 */
+		private int[] terms(Note note) {
+			Set<String> terms = new HashSet<>();
+			if (note.getTags() != null) {
+				note.getTags()
+				    .forEach(tag -> terms.add(TAG_PREFIX + tag));
+			}
+			terms.addAll(TextStatisticsEngine.distinctWords(note.getNoteTitle(), true));
+			terms.addAll(TextStatisticsEngine.distinctWords(note.getNoteText(), true));
+			return terms.stream()
+			            .mapToInt(this::termID)
+			            .toArray();
+		}
+
+		private int termID(String term) {
+			Integer termID = termIDs.get(term);
+			if (termID == null) {
+				termID = postings.size();
+				termIDs.put(term, termID);
+				postings.add(new RoaringBitmap());
+			}
+			return termID;
+		}
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import com.mycomp.notesApp.domain.NoteStats;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NoteStatsRepository extends MongoRepository<NoteStats, String> {
+
+  /*
+   * words are stored ordered by count so top N is a server side slice
+   */
+  @Query(value = "{ '_id' : ?0 }", fields = "{ 'words' : { $slice : ?1 } }")
+  Optional<NoteStats> findTopWords(Object noteID, int top);
+
+  void deleteByNoteIDIn(Collection<String> noteIDs);
+
+}
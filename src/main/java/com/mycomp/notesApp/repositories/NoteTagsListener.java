@@ -0,0 +1,38 @@
+package com.mycomp.notesApp.repositories;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.service.TagRegistry;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces tags of notes read from DB or being written with shared instances
+ * held by {@link TagRegistry}, so that notes kept in memory don't carry their
+ * own copy of every tag
+ * 
+ * @author Rahil
+ *
+ */
+@Component
+public class NoteTagsListener extends AbstractMongoEventListener<Note> {
+
+	@Autowired
+	protected TagRegistry tagRegistry;
+
+	@Override
+	public void onAfterConvert(AfterConvertEvent<Note> event) {
+		tagRegistry.intern(event.getSource()
+		                        .getTags());
+	}
+
+	@Override
+	public void onBeforeConvert(BeforeConvertEvent<Note> event) {
+		tagRegistry.intern(event.getSource()
+		                        .getTags());
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.mycomp.notesApp.repositories;
+
+import java.nio.charset.StandardCharsets;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.utils.TextCompression;
+import com.mycomp.notesApp.utils.TextStatisticsEngine;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores text of large notes compressed with Deflate in noteTextDeflated
+ * instead of noteText, text of very large notes goes to file of
+ * {@link NoteTextStore} instead. Written notes are changed after mapping so that
+ * note being saved keeps its text. Notes read from DB carry compressed text and
+ * inflate it on first read when lazy, summaries and lookups not reading text
+ * never inflate it. Distinct words of text moved out of noteText are kept in
+ * plain noteTextWords, which text index covers instead, so that compressed notes
+ * are still found by text search
+ * 
+ * @author Rahil
+ *
+ */
+@Component
+public class NoteTextCompressor extends AbstractMongoEventListener<Note> {
+
+	private static final String TEXT = "noteText";
+
+	private static final String DEFLATED_TEXT = "noteTextDeflated";
+
+	private static final String TEXT_FILE_ID = "noteTextFileID";
+
+	private static final String TEXT_LENGTH = "noteTextLength";
+
+	/* words of compressed text, not mapped on note and covered by text index */
+	static final String TEXT_WORDS = "noteTextWords";
+
+	@Autowired
+	protected NoteTextStore textStore;
+
+	@Value("${notes.text.compression.enabled:false}")
+	protected boolean enabled;
+
+	@Value("${notes.text.compression.min-length:16384}")
+	protected int minLength;
+
+	@Value("${notes.text.compression.level:1}")
+	protected int level;
+
+	@Value("${notes.text.compression.lazy:true}")
+	protected boolean lazy;
+
+	@Value("${notes.text.indexed-words.max-length:262144}")
+	protected int wordsMaxLength;
+
+	@Override
+	public void onBeforeSave(BeforeSaveEvent<Note> event) {
+		Document document = event.getDocument();
+		if (document == null) {
+			return;
+		}
+		String text = document.getString(TEXT);
+		if (textStore.isChunked(text)) {
+			Note note = event.getSource();
+			storeInFile(note, text);
+			document.remove(TEXT);
+			document.put(TEXT_FILE_ID, note.getNoteTextFileID());
+			document.put(TEXT_LENGTH, note.getNoteTextLength());
+			document.put(TEXT_WORDS, words(text));
+			return;
+		}
+		byte[] deflated = compress(text);
+		if (deflated != null) {
+			document.remove(TEXT);
+			document.put(DEFLATED_TEXT, new Binary(deflated));
+			document.put(TEXT_WORDS, words(text));
+		}
+	}
+
+	@Override
+	public void onAfterConvert(AfterConvertEvent<Note> event) {
+		if (!lazy) {
+			event.getSource()
+			     .getNoteText();
+		}
+	}
+
+	/**
+	 * Sets text of partial update in file, compressed or plain field whichever
+	 * applies and clears the others. File written for change is recorded on it,
+	 * so that it can be deleted when change fails
+	 */
+	public Update setText(Update update, Note change) {
+		String text = change.getNoteText();
+		if (textStore.isChunked(text)) {
+			storeInFile(change, text);
+			return update.set(TEXT_FILE_ID, change.getNoteTextFileID())
+			             .set(TEXT_LENGTH, change.getNoteTextLength())
+			             .set(TEXT_WORDS, words(text))
+			             .unset(TEXT)
+			             .unset(DEFLATED_TEXT);
+		}
+		update.unset(TEXT_FILE_ID)
+		      .unset(TEXT_LENGTH);
+		byte[] deflated = compress(text);
+		if (deflated == null) {
+			return update.set(TEXT, text)
+			             .unset(DEFLATED_TEXT)
+			             .unset(TEXT_WORDS);
+		}
+		return update.set(DEFLATED_TEXT, new Binary(deflated))
+		             .set(TEXT_WORDS, words(text))
+		             .unset(TEXT);
+	}
+
+	/**
+	 * @return distinct lower case words of text separated by space, words past
+	 *         max length are left out so that document stays small
+	 */
+	String words(String text) {
+		StringBuilder words = new StringBuilder();
+		for (String word : TextStatisticsEngine.distinctWords(text, true)) {
+			if (words.length() + word.length() + 1 > wordsMaxLength) {
+				break;
+			}
+			if (words.length() > 0) {
+				words.append(' ');
+			}
+			words.append(word);
+		}
+		return words.toString();
+	}
+
+	private void storeInFile(Note note, String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		note.setNoteTextFileID(textStore.store(note.getNoteTitle(), bytes));
+		note.setNoteTextLength((long) bytes.length);
+	}
+
+	/**
+	 * @return compressed text, null when compression is disabled, text is short
+	 *         or doesn't get smaller
+	 */
+	private byte[] compress(String text) {
+		if (!enabled || text == null || text.length() < minLength) {
+			return null;
+		}
+		byte[] deflated = TextCompression.deflate(text, level);
+		return deflated.length < text.getBytes(StandardCharsets.UTF_8).length ? deflated : null;
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.mycomp.notesApp.repositories;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.utils.AppConstants;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps text of very large notes in GridFS, split in chunks, note only refers
+ * to file. Text is read back as resource opening a new stream on every read, so
+ * that byte ranges are served by skipping to chunk holding range start without
+ * reading text before it or holding whole text in memory. Notes are stored in
+ * chunks only when notes.text.chunked.enabled is set
+ * 
+ * @author Rahil
+ *
+ */
+@Component
+@Slf4j
+public class NoteTextStore {
+
+	@Autowired
+	protected GridFsTemplate gridFsTemplate;
+
+	@Value("${notes.text.chunked.enabled:false}")
+	protected boolean enabled;
+
+	@Value("${notes.text.chunked.min-length:1048576}")
+	protected int minLength;
+
+	/**
+	 * @return true when text is to be stored in file
+	 */
+	public boolean isChunked(String text) {
+		return enabled && text != null && text.length() >= minLength;
+	}
+
+	/**
+	 * @return id of file holding UTF-8 text
+	 */
+	public ObjectId store(String noteTitle, byte[] text) {
+		return gridFsTemplate.store(new ByteArrayInputStream(text), noteTitle, AppConstants.TEXT_MEDIA_TYPE);
+	}
+
+	/**
+	 * @return text of note as resource, streamed from file when note text is held
+	 *         in it
+	 */
+	public Resource open(Note note) {
+		if (note.isTextInFile()) {
+			return new NoteTextResource(note.getNoteTextFileID(), note.getNoteTextLength());
+		}
+		return new ByteArrayResource(note.getNoteText() == null ? new byte[0]
+		        : note.getNoteText()
+		              .getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads whole text of note, from file when note text is held in it. Note
+	 * itself is left as it is, so that cached note never holds text of file
+	 *
+	 * @throws UncheckedIOException if file can not be read
+	 */
+	public String read(Note note) {
+		if (!note.isTextInFile()) {
+			return note.getNoteText();
+		}
+		try (InputStream text = open(note).getInputStream()) {
+			return StreamUtils.copyToString(text, StandardCharsets.UTF_8);
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Unable to read text of note " + note.getNoteID(), ex);
+		}
+	}
+
+	/**
+	 * Removes files no longer referred by notes, failure is only logged as note
+	 * write is already done
+	 */
+	public void delete(Collection<ObjectId> fileIDs) {
+		if (fileIDs.isEmpty()) {
+			return;
+		}
+		try {
+			gridFsTemplate.delete(Query.query(Criteria.where("_id")
+			                                          .in(fileIDs)));
+		} catch (Exception ex) {
+			log.error("Unable to delete {} note text files : {}", fileIDs.size(), ex.getMessage());
+		}
+	}
+
+	/**
+	 * Removes file written for note whose write failed
+	 */
+	public void discard(Note note) {
+		if (note != null && note.getNoteTextFileID() != null) {
+			delete(Collections.singletonList(note.getNoteTextFileID()));
+		}
+	}
+
+	/**
+	 * Text held in GridFS file, length is known from note so that range requests
+	 * are answered without reading file
+	 */
+	private class NoteTextResource extends AbstractResource {
+
+		private final ObjectId fileID;
+
+		private final long length;
+
+		NoteTextResource(ObjectId fileID, long length) {
+			this.fileID = fileID;
+			this.length = length;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			GridFSFile file = gridFsTemplate.findOne(Query.query(Criteria.where("_id")
+			                                                             .is(fileID)));
+			if (file == null) {
+				throw new FileNotFoundException(getDescription() + " not found");
+			}
+			return gridFsTemplate.getResource(file)
+			                     .getInputStream();
+		}
+
+		@Override
+		public long contentLength() {
+			return length;
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public String getDescription() {
+			return "note text file " + fileID;
+		}
+
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.Optional;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.utils.AppConstants;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache in front of {@link NotesRepository} lookups by note id.
+ * Cached notes are shared between requests and must be treated as read only,
+ * writers are expected to load notes from repository and evict them once
+ * written.
+ * 
+ * Notes and their existence are loaded through atomic compute of cache,
+ * eviction of a note being loaded waits for load to finish and then removes
+ * loaded copy, so a copy read before a write is never left cached after it.
+ * Absent notes are cached as well until created.
+ * 
+ * @author Rahil
+ *
+ */
+@Component
+public class NotesCache {
+
+	/**
+	 * weight of an entry besides its strings, note object, key and cache node
+	 */
+	private static final int ENTRY_BYTES = 512;
+
+	@Autowired
+	protected NotesRepository notesRepo;
+
+	@Autowired
+	protected CacheManager cacheManager;
+
+	@Cacheable(cacheNames = AppConstants.NOTES_CACHE, key = "#noteID", sync = true)
+	public Optional<Note> findByNoteID(String noteID) {
+		return notesRepo.findByNoteID(noteID);
+	}
+
+	@Cacheable(cacheNames = AppConstants.NOTE_EXISTS_CACHE, key = "#noteID", sync = true)
+	public boolean existsByNoteID(String noteID) {
+		return notesRepo.existsByNoteID(noteID);
+	}
+
+	/**
+	 * Cached note without loading it on miss, for callers which load notes
+	 * without blocking and report them back through refresh
+	 * 
+	 * @return cached note, null when note is not cached
+	 */
+	public Note cached(String noteID) {
+		Cache.ValueWrapper cached = cacheManager.getCache(AppConstants.NOTES_CACHE)
+		                                        .get(noteID);
+		return cached == null ? null : (Note) cached.get();
+	}
+
+	/**
+	 * Drops cached entries of created, modified or deleted note, to be called
+	 * once note is written
+	 */
+	@Caching(evict = { @CacheEvict(cacheNames = AppConstants.NOTES_CACHE, key = "#noteID"),
+	        @CacheEvict(cacheNames = AppConstants.NOTE_EXISTS_CACHE, key = "#noteID") })
+	public void evict(String noteID) {
+		// entries are removed by cache interceptor
+	}
+
+	/**
+	 * Approximate heap held by a cached note, notes cache is bounded by sum of
+	 * weights rather than by number of notes as text sizes differ by orders of
+	 * magnitude. Compressed text is inflated here, as it is kept next to
+	 * compressed one once read and weight is not updated afterwards
+	 * 
+	 * @return weight in bytes
+	 */
+	public static int weigh(Object noteID, Object cached) {
+		if (!(cached instanceof Note)) {
+			return ENTRY_BYTES;
+		}
+		Note note = (Note) cached;
+		long bytes = ENTRY_BYTES + 2L * length(note.getNoteTitle()) + 2L * length(note.getNoteText());
+		if (note.getNoteTextDeflated() != null) {
+			bytes += note.getNoteTextDeflated().length;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, bytes);
+	}
+
+	private static int length(String value) {
+		return value == null ? 0 : value.length();
+	}
+
+}
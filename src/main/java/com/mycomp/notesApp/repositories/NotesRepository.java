@@ -1,28 +1,87 @@
 package com.mycomp.notesApp.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import com.mycomp.notesApp.domain.Note;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface NotesRepository extends MongoRepository<Note, Long> {
+public interface NotesRepository extends MongoRepository<Note, Long>, NotesRepositoryCustom {
 
   Optional<Note> findByNoteTitle(String title);
 
+  boolean existsByNoteTitleAndNoteIDNot(String title, String noteID);
+
   Optional<Note> findByNoteID(String noteID);
 
   void deleteByNoteID(String noteID);
 
   boolean existsByNoteID(String id);
   
-  @Query(value = "{ 'tags' : {$all : [?0] }}")
-  Page findAnyOfTheseValues(List<String> tags, Pageable pageable);
+  /*
+   * Keyset pagination over createDate desc, _id desc. Pageable is expected to
+   * carry that sort and page 0, returning List keeps spring data from issuing
+   * count query. Notes saved without createDate sort after all others, they
+   * follow any dated position and Undated queries continue among them by _id
+   */
+  @Query(value = "{}")
+  List<Note> findPage(Pageable pageable);
+
+  @Query(value = "{ $or : [ { 'createDate' : { $lt : ?0 } }, { 'createDate' : ?0, '_id' : { $lt : ?1 } }, { 'createDate' : null } ] }")
+  List<Note> findPageAfter(LocalDateTime createDate, Object noteID, Pageable pageable);
+
+  @Query(value = "{ 'createDate' : null, '_id' : { $lt : ?0 } }")
+  List<Note> findUndatedPageAfter(Object noteID, Pageable pageable);
+
+  /*
+   * Summary queries return only fields needed by NotesSummaryTO, note text and
+   * tags are never read from disk nor sent over the wire. Pageable may carry
+   * offset for page based listing or page 0 for keyset pagination
+   */
+  String SUMMARY_FIELDS = "{ 'noteTitle' : 1, 'createDate' : 1 }";
+
+  @Query(value = "{}", fields = SUMMARY_FIELDS)
+  List<Note> findSummaryPage(Pageable pageable);
+
+  @Query(value = "{ $or : [ { 'createDate' : { $lt : ?0 } }, { 'createDate' : ?0, '_id' : { $lt : ?1 } }, { 'createDate' : null } ] }", fields = SUMMARY_FIELDS)
+  List<Note> findSummaryPageAfter(LocalDateTime createDate, Object noteID, Pageable pageable);
+
+  @Query(value = "{ 'createDate' : null, '_id' : { $lt : ?0 } }", fields = SUMMARY_FIELDS)
+  List<Note> findUndatedSummaryPageAfter(Object noteID, Pageable pageable);
+
+  @Query(value = "{ 'tags' : { $all : ?0 } }", fields = SUMMARY_FIELDS)
+  List<Note> findTaggedSummaryPage(List<String> tags, Pageable pageable);
+
+  @Query(value = "{ 'tags' : { $all : ?0 }, $or : [ { 'createDate' : { $lt : ?1 } }, { 'createDate' : ?1, '_id' : { $lt : ?2 } }, { 'createDate' : null } ] }", fields = SUMMARY_FIELDS)
+  List<Note> findTaggedSummaryPageAfter(List<String> tags, LocalDateTime createDate, Object noteID,
+      Pageable pageable);
+
+  @Query(value = "{ 'tags' : { $all : ?0 }, 'createDate' : null, '_id' : { $lt : ?1 } }", fields = SUMMARY_FIELDS)
+  List<Note> findTaggedUndatedSummaryPageAfter(List<String> tags, Object noteID, Pageable pageable);
+
+  /*
+   * Batch lookups reading only fields needed to check batch against existing
+   * notes and to count their tags, ids are expected to be converted with
+   * CommonUtils.toDocumentId
+   */
+  @Query(value = "{ 'noteTitle' : { $in : ?0 } }", fields = "{ 'noteTitle' : 1 }")
+  List<Note> findTitlesIn(Collection<String> titles);
+
+  @Query(value = "{ '_id' : { $in : ?0 } }", fields = "{ 'noteTitle' : 1, 'createDate' : 1, 'tags' : 1 }")
+  List<Note> findTitlesByNoteIDIn(Collection<Object> noteIDs);
+
+  /*
+   * Conditional requests are answered from version and dates of note only, id
+   * is expected to be converted with CommonUtils.toDocumentId
+   */
+  @Query(value = "{ '_id' : ?0 }", fields = "{ 'version' : 1, 'createDate' : 1, 'updateDate' : 1 }")
+  Optional<Note> findVersionByNoteID(Object noteID);
 
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagMatch;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * Notes repository operations which can not be expressed as derived or
+ * annotated queries, implemented on top of MongoTemplate
+ *
+ * @author Rahil
+ *
+ */
+public interface NotesRepositoryCustom {
+
+	/**
+	 * Opens server side cursor over notes ordered by id ascending
+	 *
+	 * @param afterNoteID - exclusive lower bound, null to start from beginning
+	 * @param limit       - max notes to read, 0 for no limit
+	 * @return cursor which must be closed by caller
+	 */
+	CloseableIterator<Note> streamAfter(String afterNoteID, int limit);
+
+	/**
+	 * Searches notes with text index on title and text, notes are read with
+	 * summary fields and relevance score only
+	 *
+	 * @param text     - words or "phrases" to search, -word excludes notes
+	 * @param pageable - page and size, sort is by score descending
+	 * @return matching notes ordered by relevance
+	 */
+	List<Note> searchSummaryPage(String text, Pageable pageable);
+
+	/**
+	 * Fetches notes of a page found by inverted index
+	 *
+	 * @param noteIDs     - ids of notes
+	 * @param summaryOnly - read summary fields only
+	 * @return notes found, in order of noteIDs
+	 */
+	List<Note> findByNoteIDs(List<String> noteIDs, boolean summaryOnly);
+
+	/**
+	 * Finds notes with tags and words, used when inverted index is not available.
+	 * Words are matched with text index so they are stemmed
+	 *
+	 * @param tags     - tags to filter, null or empty for any
+	 * @param match    - how tags are matched
+	 * @param words    - words notes must contain, null or empty for any
+	 * @param pageable - page and size, sort is by create date descending
+	 * @return matching notes with summary fields only
+	 */
+	List<Note> findMatchingSummaryPage(List<String> tags, TagMatch match, List<String> words, Pageable pageable);
+
+	/**
+	 * Finds notes by tags
+	 *
+	 * @param tags     - tags to filter, rarest first for ALL
+	 * @param match    - how tags are matched
+	 * @param pageable - page, size and sort
+	 * @return matching notes
+	 */
+	List<Note> findTaggedPage(List<String> tags, TagMatch match, Pageable pageable);
+
+	/**
+	 * Atomically applies changes to note, title, text and tags are set when not
+	 * null, update date always and version is incremented
+	 *
+	 * @param change           - changed fields of existing note
+	 * @param expectedVersions - versions note must have to be changed, null for
+	 *                         any
+	 * @return note as it was before change, null when note doesn't exist or has
+	 *         another version
+	 */
+	Note findAndUpdate(Note change, List<Long> expectedVersions);
+
+	/**
+	 * Atomically removes note
+	 *
+	 * @param expectedVersions - versions note must have to be removed, null for
+	 *                         any
+	 * @return removed note with its id and tags only, null when note doesn't
+	 *         exist or has another version
+	 */
+	Note findAndDelete(String noteID, List<Long> expectedVersions);
+
+	/**
+	 * Inserts notes with single unordered bulk write, a note failing to insert
+	 * doesn't stop the others
+	 *
+	 * @param notes - notes with ids assigned
+	 * @return errors of notes not inserted, keyed by position in notes
+	 */
+	Map<Integer, String> bulkInsert(List<Note> notes);
+
+	/**
+	 * Applies changes with single unordered bulk write, title, text and tags are
+	 * set when not null and update date always
+	 *
+	 * @param changes - changed fields of existing notes
+	 * @return errors of notes not updated, keyed by position in changes
+	 */
+	Map<Integer, String> bulkUpdate(List<Note> changes);
+
+	/**
+	 * Removes notes with given ids in single write
+	 *
+	 * @return number of removed notes
+	 */
+	long bulkDelete(Collection<String> noteIDs);
+
+}
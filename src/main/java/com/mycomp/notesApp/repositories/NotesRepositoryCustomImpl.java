@@ -0,0 +1,317 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagMatch;
+import com.mycomp.notesApp.utils.AppConstants;
+import com.mycomp.notesApp.utils.CommonUtils;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * MongoTemplate backed implementation of {@link NotesRepositoryCustom}, picked
+ * up by spring data as fragment of {@link NotesRepository}
+ *
+ * @author Rahil
+ *
+ */
+public class NotesRepositoryCustomImpl implements NotesRepositoryCustom {
+
+	@Autowired
+	protected MongoTemplate mongoTemplate;
+
+	@Autowired
+	protected NoteTextCompressor textCompressor;
+
+	@Autowired
+	protected NoteTextStore textStore;
+
+	@Override
+	public CloseableIterator<Note> streamAfter(String afterNoteID, int limit) {
+		Query query = new Query().with(Sort.by("noteID")
+		                                   .ascending())
+		                         .cursorBatchSize(AppConstants.STREAM_BATCH_SIZE);
+		if (afterNoteID != null) {
+			query.addCriteria(Criteria.where("noteID")
+			                          .gt(CommonUtils.toDocumentId(afterNoteID)));
+		}
+		if (limit > 0) {
+			query.limit(limit);
+		}
+		return mongoTemplate.stream(query, Note.class);
+	}
+
+	@Override
+	public List<Note> searchSummaryPage(String text, Pageable pageable) {
+		return mongoTemplate.find(searchSummaryQuery(text, pageable), Note.class);
+	}
+
+	/**
+	 * Text query sorted by score, limit keeps server side sort of matches down
+	 * to top of page
+	 */
+	static Query searchSummaryQuery(String text, Pageable pageable) {
+		Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage()
+		                                              .matching(text))
+		                       .sortByScore()
+		                       .with(pageable);
+		query.fields()
+		     .include("noteTitle")
+		     .include("createDate");
+		return query;
+	}
+
+	@Override
+	public List<Note> findByNoteIDs(List<String> noteIDs, boolean summaryOnly) {
+		Query query = Query.query(Criteria.where("noteID")
+		                                  .in(noteIDs));
+		if (summaryOnly) {
+			query.fields()
+			     .include("noteTitle")
+			     .include("createDate");
+		}
+		Map<String, Note> notes = new HashMap<>();
+		mongoTemplate.find(query, Note.class)
+		             .forEach(note -> notes.put(note.getNoteID(), note));
+		return noteIDs.stream()
+		              .map(notes::get)
+		              .filter(Objects::nonNull)
+		              .collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Note> findMatchingSummaryPage(List<String> tags, TagMatch match, List<String> words,
+	        Pageable pageable) {
+		return mongoTemplate.find(matchingSummaryQuery(tags, match, words, pageable), Note.class);
+	}
+
+	@Override
+	public List<Note> findTaggedPage(List<String> tags, TagMatch match, Pageable pageable) {
+		return mongoTemplate.find(Query.query(tagged(tags, match))
+		                               .with(pageable),
+		        Note.class);
+	}
+
+	/**
+	 * Tags criteria, $all keeps order of tags as its first tag bounds index scan
+	 */
+	static Criteria tagged(List<String> tags, TagMatch match) {
+		Criteria criteria = Criteria.where("tags");
+		switch (match) {
+		case ANY:
+			return criteria.in(tags);
+		case NONE:
+			return criteria.nin(tags);
+		default:
+			return criteria.all(tags);
+		}
+	}
+
+	/**
+	 * Every word is passed as a phrase so that text search requires all of them
+	 */
+	static Query matchingSummaryQuery(List<String> tags, TagMatch match, List<String> words, Pageable pageable) {
+		Query query = new Query();
+		if (!CommonUtils.isListEmpty(words)) {
+			TextCriteria text = TextCriteria.forDefaultLanguage();
+			words.forEach(text::matchingPhrase);
+			query = TextQuery.queryText(text);
+		}
+		if (!CommonUtils.isListEmpty(tags)) {
+			query.addCriteria(tagged(tags, match));
+		}
+		query.with(pageable)
+		     .fields()
+		     .include("noteTitle")
+		     .include("createDate");
+		return query;
+	}
+
+	@Override
+	public Note findAndUpdate(Note change, List<Long> expectedVersions) {
+		FindAndModifyOptions options = FindAndModifyOptions.options()
+		                                                   .returnNew(false);
+		Note previous;
+		try {
+			previous = mongoTemplate.findAndModify(byID(change.getNoteID(), expectedVersions),
+			        toUpdate(change, textCompressor), options, Note.class);
+		} catch (RuntimeException ex) {
+			textStore.delete(textFileIDs(Collections.singletonList(change)));
+			throw ex;
+		}
+		if (previous == null) {
+			textStore.delete(textFileIDs(Collections.singletonList(change)));
+		} else if (change.getNoteText() != null) {
+			textStore.delete(textFileIDs(Collections.singletonList(previous)));
+		}
+		return previous;
+	}
+
+	@Override
+	public Note findAndDelete(String noteID, List<Long> expectedVersions) {
+		Query query = byID(noteID, expectedVersions);
+		query.fields()
+		     .include("noteID")
+		     .include("createDate")
+		     .include("noteTextFileID")
+		     .include("tags");
+		Note removed = mongoTemplate.findAndRemove(query, Note.class);
+		if (removed != null) {
+			textStore.delete(textFileIDs(Collections.singletonList(removed)));
+		}
+		return removed;
+	}
+
+	@Override
+	public Map<Integer, String> bulkInsert(List<Note> notes) {
+		BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Note.class);
+		operations.insert(notes);
+		Map<Integer, String> errors = execute(operations);
+		textStore.delete(textFileIDs(failed(notes, errors)));
+		return errors;
+	}
+
+	@Override
+	public Map<Integer, String> bulkUpdate(List<Note> changes) {
+		// files of notes getting new text are replaced, they are looked up before write
+		List<String> retextedIDs = changes.stream()
+		                                  .filter(change -> change.getNoteText() != null)
+		                                  .map(Note::getNoteID)
+		                                  .collect(Collectors.toList());
+		Map<String, ObjectId> previousFileIDs = findTextFileIDs(retextedIDs);
+		BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Note.class);
+		for (Note change : changes) {
+			operations.updateOne(byID(change.getNoteID()), toUpdate(change, textCompressor));
+		}
+		Map<Integer, String> errors = execute(operations);
+		List<Note> failed = failed(changes, errors);
+		failed.forEach(change -> previousFileIDs.remove(change.getNoteID()));
+		textStore.delete(previousFileIDs.values());
+		textStore.delete(textFileIDs(failed));
+		return errors;
+	}
+
+	@Override
+	public long bulkDelete(Collection<String> noteIDs) {
+		Map<String, ObjectId> fileIDs = findTextFileIDs(noteIDs);
+		// a single delete by ids, there is nothing to report per note
+		long deleted = mongoTemplate.remove(Query.query(Criteria.where("noteID")
+		                                                        .in(noteIDs)),
+		        Note.class)
+		                            .getDeletedCount();
+		textStore.delete(fileIDs.values());
+		return deleted;
+	}
+
+	static Query byID(String noteID) {
+		return Query.query(Criteria.where("noteID")
+		                           .is(noteID));
+	}
+
+	/**
+	 * Note by id having one of versions, notes without version field are taken
+	 * as version 0
+	 */
+	static Query byID(String noteID, List<Long> expectedVersions) {
+		Query query = byID(noteID);
+		if (expectedVersions != null) {
+			List<Long> versions = new ArrayList<>(expectedVersions);
+			if (versions.contains(0L)) {
+				// $in null also matches missing field
+				versions.add(null);
+			}
+			query.addCriteria(Criteria.where("version")
+			                          .in(versions));
+		}
+		return query;
+	}
+
+	static Update toUpdate(Note change, NoteTextCompressor textCompressor) {
+		Update update = new Update().set("updateDate", change.getUpdateDate())
+		                            .inc("version", 1);
+		if (change.getNoteTitle() != null) {
+			update.set("noteTitle", change.getNoteTitle());
+		}
+		if (change.getNoteText() != null) {
+			textCompressor.setText(update, change);
+		}
+		if (change.getTags() != null) {
+			update.set("tags", change.getTags());
+		}
+		return update;
+	}
+
+	/**
+	 * @return ids of files holding text of notes, by note id
+	 */
+	private Map<String, ObjectId> findTextFileIDs(Collection<String> noteIDs) {
+		if (noteIDs.isEmpty()) {
+			return new HashMap<>();
+		}
+		Query query = Query.query(Criteria.where("noteID")
+		                                  .in(noteIDs)
+		                                  .and("noteTextFileID")
+		                                  .exists(true));
+		query.fields()
+		     .include("noteTextFileID");
+		return mongoTemplate.find(query, Note.class)
+		                    .stream()
+		                    .collect(Collectors.toMap(Note::getNoteID, Note::getNoteTextFileID));
+	}
+
+	static List<ObjectId> textFileIDs(List<Note> notes) {
+		return notes.stream()
+		            .map(Note::getNoteTextFileID)
+		            .filter(Objects::nonNull)
+		            .collect(Collectors.toList());
+	}
+
+	private static List<Note> failed(List<Note> notes, Map<Integer, String> errors) {
+		return errors.keySet()
+		             .stream()
+		             .map(notes::get)
+		             .collect(Collectors.toList());
+	}
+
+	private static Map<Integer, String> execute(BulkOperations operations) {
+		try {
+			operations.execute();
+			return Collections.emptyMap();
+		} catch (BulkOperationException ex) {
+			Map<Integer, String> errors = new TreeMap<>();
+			for (BulkWriteError error : ex.getErrors()) {
+				errors.put(error.getIndex(),
+				        ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+				                ? "note by title already exists"
+				                : error.getMessage());
+			}
+			return errors;
+		}
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.mycomp.notesApp.repositories;
+
+/**
+ * Revision counter operations implemented on top of MongoTemplate
+ *
+ * @author Rahil
+ *
+ */
+public interface NotesRevisionRepositoryCustom {
+
+	/**
+	 * Increments revision with $inc, missing counter is created
+	 *
+	 * @param name - name of revised collection
+	 * @return revision after increment
+	 */
+	long increment(String name);
+
+}
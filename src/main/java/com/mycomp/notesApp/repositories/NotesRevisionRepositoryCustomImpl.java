@@ -0,0 +1,36 @@
+package com.mycomp.notesApp.repositories;
+
+import com.mycomp.notesApp.domain.NotesRevision;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * MongoTemplate backed implementation of
+ * {@link NotesRevisionRepositoryCustom}, picked up by spring data as fragment
+ * of {@link NotesRevisionRepository}
+ *
+ * @author Rahil
+ *
+ */
+public class NotesRevisionRepositoryCustomImpl implements NotesRevisionRepositoryCustom {
+
+	@Autowired
+	protected MongoTemplate mongoTemplate;
+
+	@Override
+	public long increment(String name) {
+		return mongoTemplate.findAndModify(Query.query(Criteria.where("name")
+		                                                       .is(name)),
+		        new Update().inc("revision", 1), FindAndModifyOptions.options()
+		                                                      .upsert(true)
+		                                                      .returnNew(true),
+		        NotesRevision.class)
+		                    .getRevision();
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.mycomp.notesApp.repositories;
+
+import com.mycomp.notesApp.domain.NoteStats;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/*
+ * Non blocking counterpart of NoteStatsRepository used by reactive profile
+ */
+@Repository
+public interface ReactiveNoteStatsRepository
+        extends ReactiveMongoRepository<NoteStats, String>, ReactiveNoteStatsRepositoryCustom {
+
+}
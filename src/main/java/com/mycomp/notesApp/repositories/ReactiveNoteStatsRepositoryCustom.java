@@ -0,0 +1,22 @@
+package com.mycomp.notesApp.repositories;
+
+import com.mycomp.notesApp.domain.NoteStats;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of queries declared on {@link NoteStatsRepository},
+ * implemented on top of ReactiveMongoTemplate for same reason as
+ * {@link ReactiveNotesRepositoryCustom}
+ *
+ * @author Rahil
+ *
+ */
+public interface ReactiveNoteStatsRepositoryCustom {
+
+	/**
+	 * @see NoteStatsRepository#findTopWords(Object, int)
+	 */
+	Mono<NoteStats> findTopWords(Object noteID, int top);
+
+}
@@ -0,0 +1,37 @@
+package com.mycomp.notesApp.repositories;
+
+import com.mycomp.notesApp.domain.NoteStats;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveMongoTemplate backed implementation of
+ * {@link ReactiveNoteStatsRepositoryCustom}, picked up by spring data as
+ * fragment of {@link ReactiveNoteStatsRepository}
+ *
+ * @author Rahil
+ *
+ */
+public class ReactiveNoteStatsRepositoryCustomImpl implements ReactiveNoteStatsRepositoryCustom {
+
+	@Autowired
+	protected ReactiveMongoTemplate reactiveMongoTemplate;
+
+	/*
+	 * words are stored ordered by count so top N is a server side slice
+	 */
+	@Override
+	public Mono<NoteStats> findTopWords(Object noteID, int top) {
+		Query query = new Query(Criteria.where("noteID")
+		                                .is(noteID));
+		query.fields()
+		     .slice("words", top);
+		return reactiveMongoTemplate.findOne(query, NoteStats.class);
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.mycomp.notesApp.repositories;
+
+import com.mycomp.notesApp.domain.Note;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+/*
+ * Non blocking counterpart of NotesRepository used by reactive profile,
+ * queries are implemented in ReactiveNotesRepositoryCustomImpl
+ */
+@Repository
+public interface ReactiveNotesRepository extends ReactiveMongoRepository<Note, String>, ReactiveNotesRepositoryCustom {
+
+	Mono<Boolean> existsByNoteTitleAndNoteIDNot(String title, String noteID);
+
+}
@@ -0,0 +1,90 @@
+package com.mycomp.notesApp.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagMatch;
+
+import org.springframework.data.domain.Pageable;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of queries declared on {@link NotesRepository} and
+ * {@link NotesRepositoryCustom}, implemented on top of ReactiveMongoTemplate.
+ * Annotated queries are not used as reactive query evaluation rejects JPA
+ * evaluation context extension present on classpath. Queries are kept same as
+ * in NotesRepository so that they are served by same indexes
+ *
+ * @author Rahil
+ *
+ */
+public interface ReactiveNotesRepositoryCustom {
+
+	/**
+	 * @see NotesRepository#findPage(Pageable)
+	 */
+	Flux<Note> findPage(Pageable pageable);
+
+	/**
+	 * Null creation date continues among notes saved without one
+	 *
+	 * @see NotesRepository#findPageAfter(LocalDateTime, Object, Pageable)
+	 * @see NotesRepository#findUndatedPageAfter(Object, Pageable)
+	 */
+	Flux<Note> findPageAfter(LocalDateTime createDate, Object noteID, Pageable pageable);
+
+	/**
+	 * @see NotesRepository#findSummaryPage(Pageable)
+	 */
+	Flux<Note> findSummaryPage(Pageable pageable);
+
+	/**
+	 * @see NotesRepository#findSummaryPageAfter(LocalDateTime, Object, Pageable)
+	 */
+	Flux<Note> findSummaryPageAfter(LocalDateTime createDate, Object noteID, Pageable pageable);
+
+	/**
+	 * @see NotesRepository#findTaggedSummaryPage(List, Pageable)
+	 */
+	Flux<Note> findTaggedSummaryPage(List<String> tags, Pageable pageable);
+
+	/**
+	 * @see NotesRepository#findTaggedSummaryPageAfter(List, LocalDateTime, Object,
+	 *      Pageable)
+	 */
+	Flux<Note> findTaggedSummaryPageAfter(List<String> tags, LocalDateTime createDate, Object noteID,
+	        Pageable pageable);
+
+	/**
+	 * @see NotesRepositoryCustom#findTaggedPage(List, TagMatch, Pageable)
+	 */
+	Flux<Note> findTaggedPage(List<String> tags, TagMatch match, Pageable pageable);
+
+	/**
+	 * @see NotesRepositoryCustom#searchSummaryPage(String, Pageable)
+	 */
+	Flux<Note> searchSummaryPage(String text, Pageable pageable);
+
+	/**
+	 * Notes ordered by id ascending, read from cursor in batches as subscriber
+	 * requests them
+	 *
+	 * @param afterNoteID - exclusive lower bound, null to start from beginning
+	 * @param limit       - max notes to read, 0 for no limit
+	 */
+	Flux<Note> streamAfter(String afterNoteID, int limit);
+
+	/**
+	 * @see NotesRepositoryCustom#findAndUpdate(Note, List)
+	 */
+	Mono<Note> findAndUpdate(Note change);
+
+	/**
+	 * @see NotesRepositoryCustom#findAndDelete(String, List)
+	 */
+	Mono<Note> findAndDelete(String noteID);
+
+}
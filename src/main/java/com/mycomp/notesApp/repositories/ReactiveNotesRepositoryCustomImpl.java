@@ -0,0 +1,180 @@
+package com.mycomp.notesApp.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagMatch;
+import com.mycomp.notesApp.utils.AppConstants;
+import com.mycomp.notesApp.utils.CommonUtils;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveMongoTemplate backed implementation of
+ * {@link ReactiveNotesRepositoryCustom}, picked up by spring data as fragment
+ * of {@link ReactiveNotesRepository}
+ *
+ * @author Rahil
+ *
+ */
+@Slf4j
+public class ReactiveNotesRepositoryCustomImpl implements ReactiveNotesRepositoryCustom {
+
+	@Autowired
+	protected ReactiveMongoTemplate reactiveMongoTemplate;
+
+	@Autowired
+	protected NoteTextCompressor textCompressor;
+
+	@Autowired
+	protected ReactiveGridFsTemplate reactiveGridFsTemplate;
+
+	@Override
+	public Flux<Note> findPage(Pageable pageable) {
+		return find(new Criteria(), false, pageable);
+	}
+
+	@Override
+	public Flux<Note> findPageAfter(LocalDateTime createDate, Object noteID, Pageable pageable) {
+		return find(after(new Criteria(), createDate, noteID), false, pageable);
+	}
+
+	@Override
+	public Flux<Note> findSummaryPage(Pageable pageable) {
+		return find(new Criteria(), true, pageable);
+	}
+
+	@Override
+	public Flux<Note> findSummaryPageAfter(LocalDateTime createDate, Object noteID, Pageable pageable) {
+		return find(after(new Criteria(), createDate, noteID), true, pageable);
+	}
+
+	@Override
+	public Flux<Note> findTaggedSummaryPage(List<String> tags, Pageable pageable) {
+		return find(Criteria.where("tags")
+		                    .all(tags),
+		        true, pageable);
+	}
+
+	@Override
+	public Flux<Note> findTaggedSummaryPageAfter(List<String> tags, LocalDateTime createDate, Object noteID,
+	        Pageable pageable) {
+		return find(after(Criteria.where("tags")
+		                          .all(tags),
+		        createDate, noteID), true, pageable);
+	}
+
+	@Override
+	public Flux<Note> findTaggedPage(List<String> tags, TagMatch match, Pageable pageable) {
+		return find(NotesRepositoryCustomImpl.tagged(tags, match), false, pageable);
+	}
+
+	@Override
+	public Flux<Note> searchSummaryPage(String text, Pageable pageable) {
+		return reactiveMongoTemplate.find(NotesRepositoryCustomImpl.searchSummaryQuery(text, pageable), Note.class);
+	}
+
+	/**
+	 * Notes positioned after given note in createDate desc, _id desc order
+	 */
+	private static Criteria after(Criteria criteria, LocalDateTime createDate, Object noteID) {
+		if (createDate == null) {
+			return criteria.and("createDate")
+			               .is(null)
+			               .and("noteID")
+			               .lt(noteID);
+		}
+		return criteria.orOperator(Criteria.where("createDate")
+		                                   .lt(createDate),
+		        Criteria.where("createDate")
+		                .is(createDate)
+		                .and("noteID")
+		                .lt(noteID),
+		        Criteria.where("createDate")
+		                .is(null));
+	}
+
+	/**
+	 * @param summaryOnly - read only fields needed by NotesSummaryTO
+	 */
+	private Flux<Note> find(Criteria criteria, boolean summaryOnly, Pageable pageable) {
+		Query query = new Query(criteria).with(pageable);
+		if (summaryOnly) {
+			query.fields()
+			     .include("noteTitle")
+			     .include("createDate");
+		}
+		return reactiveMongoTemplate.find(query, Note.class);
+	}
+
+	@Override
+	public Flux<Note> streamAfter(String afterNoteID, int limit) {
+		Query query = new Query().with(Sort.by("noteID")
+		                                   .ascending())
+		                         .cursorBatchSize(AppConstants.STREAM_BATCH_SIZE);
+		if (afterNoteID != null) {
+			query.addCriteria(Criteria.where("noteID")
+			                          .gt(CommonUtils.toDocumentId(afterNoteID)));
+		}
+		if (limit > 0) {
+			query.limit(limit);
+		}
+		return reactiveMongoTemplate.find(query, Note.class);
+	}
+
+	@Override
+	public Mono<Note> findAndUpdate(Note change) {
+		FindAndModifyOptions options = FindAndModifyOptions.options()
+		                                                   .returnNew(false);
+		return reactiveMongoTemplate.findAndModify(NotesRepositoryCustomImpl.byID(change.getNoteID()),
+		        NotesRepositoryCustomImpl.toUpdate(change, textCompressor), options, Note.class)
+		                            .onErrorResume(ex -> deleteTextFiles(change).then(Mono.error(ex)))
+		                            .switchIfEmpty(deleteTextFiles(change).then(Mono.empty()))
+		                            .flatMap(previous -> change.getNoteText() == null ? Mono.just(previous)
+		                                    : deleteTextFiles(previous).thenReturn(previous));
+	}
+
+	@Override
+	public Mono<Note> findAndDelete(String noteID) {
+		Query query = NotesRepositoryCustomImpl.byID(noteID);
+		query.fields()
+		     .include("noteID")
+		     .include("createDate")
+		     .include("noteTextFileID")
+		     .include("tags");
+		return reactiveMongoTemplate.findAndRemove(query, Note.class)
+		                            .flatMap(removed -> deleteTextFiles(removed).thenReturn(removed));
+	}
+
+	/**
+	 * Removes file holding text of note if any, failure is only logged as note
+	 * write is already done
+	 */
+	private Mono<Void> deleteTextFiles(Note note) {
+		return Mono.defer(() -> {
+			List<ObjectId> fileIDs = NotesRepositoryCustomImpl.textFileIDs(Collections.singletonList(note));
+			return fileIDs.isEmpty() ? Mono.<Void>empty()
+			        : reactiveGridFsTemplate.delete(Query.query(Criteria.where("_id")
+			                                                            .in(fileIDs)));
+		})
+		           .onErrorResume(ex -> {
+			           log.error("Unable to delete note text file of note {} : {}", note.getNoteID(), ex.getMessage());
+			           return Mono.empty();
+		           });
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+import com.mycomp.notesApp.domain.TagCount;
+
+/**
+ * Tag counter operations implemented on top of MongoTemplate
+ *
+ * @author Rahil
+ *
+ */
+public interface TagCountRepositoryCustom {
+
+	/**
+	 * Adds deltas to counters of tags with single unordered bulk write, missing
+	 * counters are created
+	 *
+	 * @param deltas - change of notes count keyed by tag
+	 */
+	void increment(Map<String, Long> deltas);
+
+	/**
+	 * Counts notes of every tag by aggregating note collection, used to
+	 * initialize counters
+	 *
+	 * @return count of every tag found on notes
+	 */
+	List<TagCount> countNoteTags();
+
+}
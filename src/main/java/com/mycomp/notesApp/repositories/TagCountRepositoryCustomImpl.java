@@ -0,0 +1,53 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagCount;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * MongoTemplate backed implementation of {@link TagCountRepositoryCustom},
+ * picked up by spring data as fragment of {@link TagCountRepository}
+ *
+ * @author Rahil
+ *
+ */
+public class TagCountRepositoryCustomImpl implements TagCountRepositoryCustom {
+
+	@Autowired
+	protected MongoTemplate mongoTemplate;
+
+	@Override
+	public void increment(Map<String, Long> deltas) {
+		if (deltas.isEmpty()) {
+			return;
+		}
+		BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, TagCount.class);
+		deltas.forEach((tag, delta) -> operations.upsert(Query.query(Criteria.where("tag")
+		                                                                        .is(tag)),
+		        new Update().inc("count", delta)));
+		operations.execute();
+	}
+
+	@Override
+	public List<TagCount> countNoteTags() {
+		// tag repeated on a note counts once
+		Aggregation aggregation = Aggregation.newAggregation(Aggregation.unwind("tags"),
+		        Aggregation.group("noteID", "tags"), Aggregation.group("tags")
+		                   .count()
+		                   .as("count"));
+		return mongoTemplate.aggregate(aggregation, Note.class, TagCount.class)
+		                    .getMappedResults();
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.mycomp.notesApp.repositories;
+
+import com.mycomp.notesApp.domain.TagDayCount;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TagDayCountRepository extends MongoRepository<TagDayCount, String>, TagDayCountRepositoryCustom {
+
+}
@@ -0,0 +1,43 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.mycomp.notesApp.domain.TagCount;
+import com.mycomp.notesApp.domain.TagDayCount;
+
+/**
+ * Daily tag counter operations implemented on top of MongoTemplate
+ *
+ * @author Rahil
+ *
+ */
+public interface TagDayCountRepositoryCustom {
+
+	/**
+	 * Adds deltas to daily counters with single unordered bulk write, missing
+	 * counters are created
+	 *
+	 * @param deltas - counters with change of notes count as count
+	 */
+	void increment(Collection<TagDayCount> deltas);
+
+	/**
+	 * Sums daily counters of days in range, reads counters of the range only
+	 *
+	 * @param fromDay - first day as yyyy-MM-dd, null for no lower bound
+	 * @param toDay   - day after last day as yyyy-MM-dd, null for no upper bound
+	 * @return count of every tag in range
+	 */
+	List<TagCount> sumBetween(String fromDay, String toDay);
+
+	/**
+	 * Counts notes of every tag and creation day by aggregating note collection,
+	 * used to initialize counters
+	 *
+	 * @param timezone - zone of note creation dates
+	 * @return daily counters found on notes
+	 */
+	List<TagDayCount> countNoteTagsDaily(String timezone);
+
+}
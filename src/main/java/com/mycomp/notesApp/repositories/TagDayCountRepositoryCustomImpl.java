@@ -0,0 +1,91 @@
+package com.mycomp.notesApp.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagCount;
+import com.mycomp.notesApp.domain.TagDayCount;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * MongoTemplate backed implementation of {@link TagDayCountRepositoryCustom},
+ * picked up by spring data as fragment of {@link TagDayCountRepository}
+ *
+ * @author Rahil
+ *
+ */
+public class TagDayCountRepositoryCustomImpl implements TagDayCountRepositoryCustom {
+
+	@Autowired
+	protected MongoTemplate mongoTemplate;
+
+	@Override
+	public void increment(Collection<TagDayCount> deltas) {
+		if (deltas.isEmpty()) {
+			return;
+		}
+		BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, TagDayCount.class);
+		for (TagDayCount delta : deltas) {
+			operations.upsert(Query.query(Criteria.where("id")
+			                                      .is(delta.getId())),
+			        new Update().inc("count", delta.getCount())
+			                    .setOnInsert("tag", delta.getTag())
+			                    .setOnInsert("day", delta.getDay()));
+		}
+		operations.execute();
+	}
+
+	@Override
+	public List<TagCount> sumBetween(String fromDay, String toDay) {
+		Criteria range = Criteria.where("id");
+		if (fromDay != null) {
+			range.gte(fromDay);
+		}
+		if (toDay != null) {
+			range.lt(toDay);
+		}
+		Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(range), Aggregation.group("tag")
+		                                                                                          .sum("count")
+		                                                                                          .as("count"));
+		return mongoTemplate.aggregate(aggregation, TagDayCount.class, TagCount.class)
+		                    .getMappedResults();
+	}
+
+	@Override
+	public List<TagDayCount> countNoteTagsDaily(String timezone) {
+		// tag repeated on a note counts once
+		Aggregation aggregation = Aggregation.newAggregation(Aggregation.unwind("tags"),
+		        Aggregation.project("noteID", "tags")
+		                   .and(DateOperators.DateToString.dateOf("createDate")
+		                                                  .toString("%Y-%m-%d")
+		                                                  .withTimezone(DateOperators.Timezone.valueOf(timezone)))
+		                   .as("day"),
+		        Aggregation.group("noteID", "tags", "day"), Aggregation.group("tags", "day")
+		                                                               .count()
+		                                                               .as("count"));
+		return mongoTemplate.aggregate(aggregation, Note.class, Document.class)
+		                    .getMappedResults()
+		                    .stream()
+		                    .map(result -> {
+			                    Document key = result.get("_id", Document.class);
+			                    String tag = key.getString("tags");
+			                    String day = key.getString("day");
+			                    return new TagDayCount(TagDayCount.id(day, tag), tag, day,
+			                            ((Number) result.get("count")).longValue());
+		                    })
+		                    .collect(Collectors.toList());
+	}
+
+}
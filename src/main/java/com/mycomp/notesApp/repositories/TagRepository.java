@@ -0,0 +1,11 @@
+package com.mycomp.notesApp.repositories;
+
+import com.mycomp.notesApp.domain.Tag;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TagRepository extends MongoRepository<Tag, String> {
+
+}
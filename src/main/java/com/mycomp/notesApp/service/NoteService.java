@@ -1,12 +1,22 @@
 package com.mycomp.notesApp.service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+
+import com.mycomp.notesApp.domain.TagMatch;
 import com.mycomp.notesApp.exceptions.DataNotFoundException;
 import com.mycomp.notesApp.exceptions.DataNotSavedException;
+import com.mycomp.notesApp.exceptions.PreconditionFailedException;
 import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NoteVersionTO;
+import com.mycomp.notesApp.to.NotesBatchResultTO;
+import com.mycomp.notesApp.to.NotesPageTO;
 import com.mycomp.notesApp.to.NotesSummaryTO;
 
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+
 /**
  * Notes service with supported operations
  * 
@@ -18,22 +28,86 @@ public interface NoteService {
 
 	public NoteTO updateNote(NoteTO inputNote) throws DataNotSavedException;
 
+	/**
+	 * Modifies note only if it has one of expected versions
+	 * 
+	 * @param expectedVersions - versions note must have, null for any
+	 * @throws PreconditionFailedException when note has another version
+	 */
+	public NoteTO updateNote(NoteTO inputNote, List<Long> expectedVersions) throws DataNotSavedException;
+
 	public boolean deleteNote(String noteID) throws DataNotSavedException;
 
+	/**
+	 * Deletes note only if it has one of expected versions
+	 * 
+	 * @param expectedVersions - versions note must have, null for any
+	 * @throws PreconditionFailedException when note has another version
+	 */
+	public boolean deleteNote(String noteID, List<Long> expectedVersions) throws DataNotSavedException;
+
+	public NotesBatchResultTO createNotes(List<NoteTO> inputNotes) throws DataNotSavedException;
+
+	public NotesBatchResultTO updateNotes(List<NoteTO> inputNotes) throws DataNotSavedException;
+
+	public NotesBatchResultTO deleteNotes(List<String> noteIDs) throws DataNotSavedException;
+
 	public List<NoteTO> listNotes() throws DataNotFoundException;
 
+	public NotesStream streamNotes(String continuationToken, int limit) throws DataNotFoundException;
+
 	public List<NoteTO> listNotesPageable(int page,int size) throws DataNotFoundException;
 
-	public List<NoteTO> listNotesFiltered(List<String> tags) throws DataNotFoundException;
+	public List<NoteTO> listNotesFiltered(List<String> tags, TagMatch match, int page, int size, String sortBy,
+	        Sort.Direction direction) throws DataNotFoundException;
 	
 	public List<NotesSummaryTO> listNotesSummary(int page, int size, String[] filters) throws DataNotFoundException;
 
+	public NotesPageTO<NotesSummaryTO> listNotesSummaryAfter(String cursor, int size, String[] filters)
+	        throws DataNotFoundException;
+
+	public List<NotesSummaryTO> searchNotes(String text, int page, int size) throws DataNotFoundException;
+
+	public List<NotesSummaryTO> matchNotes(String[] tags, TagMatch match, String words, int page, int size)
+	        throws DataNotFoundException;
+
+	public Map<String, Long> tagFacets(LocalDate from, LocalDate to) throws DataNotFoundException;
+
+	public NotesPageTO<NoteTO> listNotesAfter(String cursor, int size) throws DataNotFoundException;
+
 	public boolean noteExists(String id) throws DataNotFoundException;
 
 	public NoteTO searchNote(String noteID) throws DataNotFoundException;
 
 	public Map<String,Integer> statsPerNote(String noteID) throws DataNotFoundException;
 
-	public String getNotesText(String noteID) throws DataNotFoundException;
+	public Map<String,Integer> statsPerNote(String noteID, int top) throws DataNotFoundException;
+
+	/**
+	 * @return text of note as resource, text of very large notes is streamed from
+	 *         file
+	 */
+	public Resource getNotesText(String noteID) throws DataNotFoundException;
+
+	/**
+	 * @return version of note, read without note's text and tags
+	 */
+	public NoteVersionTO noteVersion(String noteID) throws DataNotFoundException;
+
+	/**
+	 * @return version of note held in notes cache, null when note is not cached
+	 */
+	public NoteVersionTO cachedNoteVersion(String noteID);
+
+	/**
+	 * @return revision of note collection, changes after every note write
+	 */
+	public long notesRevision();
+
+	/**
+	 * @return revision of note collection last read, read from DB only until
+	 *         first one is known
+	 */
+	public long lastNotesRevision();
 
 }
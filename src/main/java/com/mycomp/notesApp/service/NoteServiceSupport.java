@@ -0,0 +1,218 @@
+package com.mycomp.notesApp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagMatch;
+import com.mycomp.notesApp.exceptions.DataNotFoundException;
+import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesPageTO;
+import com.mycomp.notesApp.utils.AppConstants;
+import com.mycomp.notesApp.utils.CommonUtils;
+import com.mycomp.notesApp.utils.CursorTokens;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Steps of note operations shared by blocking and reactive service
+ * implementations, so that both behave the same regardless of how notes are
+ * read and written
+ * 
+ * @author Rahil
+ *
+ */
+@Slf4j
+final class NoteServiceSupport {
+
+	/* fields tag filter can sort by, each is served by an index */
+	private static final List<String> TAG_FILTER_SORT_FIELDS = Arrays.asList("createDate", "noteTitle");
+
+	private NoteServiceSupport() {
+	}
+
+	/**
+	 * Maps note's details passed in input to entity to be modified
+	 * 
+	 * @param savedNote  - Entity to be modified
+	 * @param inputNote  - input to the service
+	 * @param updateDate - modification date
+	 */
+	static void prepareNoteToUpdate(Note savedNote, NoteTO inputNote, LocalDateTime updateDate) {
+		log.debug("preparing note {} to be modified", inputNote.getNoteID());
+		if (!CommonUtils.isStringNullorEmpty(inputNote.getNoteTitle())) {
+			savedNote.setNoteTitle(inputNote.getNoteTitle());
+		}
+		if (!CommonUtils.isStringNullorEmpty(inputNote.getNoteText())) {
+			savedNote.setNoteText(inputNote.getNoteText());
+		}
+		if (!CommonUtils.isListEmpty(inputNote.getTags())) {
+			savedNote.setTags(new ArrayList<>(inputNote.getTags()));
+		}
+		savedNote.setUpdateDate(updateDate);
+	}
+
+	/**
+	 * Page request of text search, sort is by relevance so none is set here
+	 */
+	static Pageable searchPageRequest(String text, int page, int size) {
+		if (CommonUtils.isStringNullorEmpty(text) || text.trim()
+		                                                 .isEmpty()) {
+			throw new InputParameterInvalidException("search text not passed", "q", "null/empty");
+		}
+		if (text.length() > AppConstants.MAX_SEARCH_TEXT_LENGTH) {
+			throw new InputParameterInvalidException(
+			        "search text can not exceed " + AppConstants.MAX_SEARCH_TEXT_LENGTH + " characters", "q", text);
+		}
+		if (page < 0) {
+			throw new InputParameterInvalidException("page can not be negative", "page", String.valueOf(page));
+		}
+		if (size <= 0 || size > AppConstants.MAX_SEARCH_PAGE_SIZE) {
+			throw new InputParameterInvalidException("page size must be between 1 and "
+			        + AppConstants.MAX_SEARCH_PAGE_SIZE, "size", String.valueOf(size));
+		}
+		return PageRequest.of(page, size);
+	}
+
+	/**
+	 * Page request of notes listed newest first, size is not capped as listings
+	 * have never been
+	 */
+	static Pageable newestFirstPageRequest(int page, int size) {
+		if (page < 0) {
+			throw new InputParameterInvalidException("page can not be negative", "page", String.valueOf(page));
+		}
+		if (size <= 0) {
+			throw new InputParameterInvalidException("page size must be positive", "size", String.valueOf(size));
+		}
+		return PageRequest.of(page, size, Sort.by("createDate")
+		                                      .descending());
+	}
+
+	/**
+	 * Page request of notes matching tags and words, sorted by creation date
+	 * descending as notes are ordered by inverted index
+	 */
+	static Pageable matchPageRequest(String words, int page, int size) {
+		if (words != null && words.length() > AppConstants.MAX_SEARCH_TEXT_LENGTH) {
+			throw new InputParameterInvalidException(
+			        "search text can not exceed " + AppConstants.MAX_SEARCH_TEXT_LENGTH + " characters", "q", words);
+		}
+		if (page < 0) {
+			throw new InputParameterInvalidException("page can not be negative", "page", String.valueOf(page));
+		}
+		if (size <= 0 || size > AppConstants.MAX_SEARCH_PAGE_SIZE) {
+			throw new InputParameterInvalidException("page size must be between 1 and "
+			        + AppConstants.MAX_SEARCH_PAGE_SIZE, "size", String.valueOf(size));
+		}
+		return PageRequest.of(page, size, Sort.by("createDate", "noteID")
+		                                      .descending());
+	}
+
+	/**
+	 * Page request of tag filter, notes are sorted by one of indexed fields and
+	 * then by id so that order is stable across pages
+	 */
+	static Pageable tagFilterPageRequest(List<String> tags, TagMatch match, int page, int size, String sortBy,
+	        Sort.Direction direction) {
+		if (CommonUtils.isListEmpty(tags)) {
+			throw new InputParameterInvalidException("tags not passed", "tags", "null/empty");
+		}
+		if (match == null) {
+			throw new InputParameterInvalidException("tag match not passed", "match", "null/empty");
+		}
+		if (!TAG_FILTER_SORT_FIELDS.contains(sortBy)) {
+			throw new InputParameterInvalidException("notes can be sorted by " + TAG_FILTER_SORT_FIELDS, "sortBy",
+			        sortBy);
+		}
+		if (page < 0) {
+			throw new InputParameterInvalidException("page can not be negative", "page", String.valueOf(page));
+		}
+		if (size <= 0 || size > AppConstants.MAX_SEARCH_PAGE_SIZE) {
+			throw new InputParameterInvalidException("page size must be between 1 and "
+			        + AppConstants.MAX_SEARCH_PAGE_SIZE, "size", String.valueOf(size));
+		}
+		Sort.Direction order = direction == null ? Sort.Direction.DESC : direction;
+		return PageRequest.of(page, size, Sort.by(order, sortBy, "noteID"));
+	}
+
+	/**
+	 * Checks creation day range of tag facets, either bound can be left open
+	 */
+	static void validateDateRange(LocalDate from, LocalDate to) {
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new InputParameterInvalidException("from date can not be after to date", "from", from.toString());
+		}
+	}
+
+	/**
+	 * @return true when notes are requested newest first, order kept by inverted
+	 *         index
+	 */
+	static boolean isNewestFirst(Pageable pageable) {
+		Sort.Order first = pageable.getSort()
+		                           .iterator()
+		                           .next();
+		return "createDate".equals(first.getProperty()) && first.isDescending();
+	}
+
+	/**
+	 * Keyset page request sorted by creation date and id descending, one note more
+	 * than requested is fetched to find out if next page exists
+	 */
+	static Pageable keysetPageRequest(int size) {
+		if (size <= 0) {
+			throw new InputParameterInvalidException("page size must be positive", "size", String.valueOf(size));
+		}
+		return PageRequest.of(0, size + 1,
+		        Sort.by(Sort.Direction.DESC, "createDate").and(Sort.by(Sort.Direction.DESC, "noteID")));
+	}
+
+	/**
+	 * @return creation date and id of last note of previous page, date is null
+	 *         when that note has none
+	 */
+	static Object[] keysetPosition(String cursor) {
+		String[] position = CursorTokens.decode(cursor, 1, 2, "cursor");
+		if (position.length == 1) {
+			return new Object[] { null, CommonUtils.toDocumentId(position[0]) };
+		}
+		try {
+			return new Object[] { LocalDateTime.parse(position[0]), CommonUtils.toDocumentId(position[1]) };
+		} catch (DateTimeParseException ex) {
+			throw new InputParameterInvalidException("cursor is not valid", "cursor", cursor);
+		}
+	}
+
+	/**
+	 * Builds page out of notes fetched with {@link #keysetPageRequest(int)}. Notes
+	 * saved before creation date was set sort after all others, cursor ending on
+	 * such note carries only its id and next page continues among them by id
+	 */
+	static <T> NotesPageTO<T> keysetPage(List<Note> notes, int size, Function<Note, T> mapper) {
+		if (notes == null || notes.isEmpty()) {
+			throw new DataNotFoundException("No notes found");
+		}
+		String nextCursor = null;
+		if (notes.size() > size) {
+			notes = notes.subList(0, size);
+			Note last = notes.get(size - 1);
+			nextCursor = last.getCreateDate() == null ? CursorTokens.encode(last.getNoteID())
+			        : CursorTokens.encode(last.getCreateDate().toString(), last.getNoteID());
+		}
+		List<T> page = notes.stream().map(mapper).collect(Collectors.toList());
+		return new NotesPageTO<>(page, nextCursor);
+	}
+
+}
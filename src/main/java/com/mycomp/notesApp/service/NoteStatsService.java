@@ -0,0 +1,207 @@
+package com.mycomp.notesApp.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.NoteStats;
+import com.mycomp.notesApp.exceptions.DataNotFoundException;
+import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+import com.mycomp.notesApp.repositories.NoteStatsRepository;
+import com.mycomp.notesApp.repositories.NoteTextStore;
+import com.mycomp.notesApp.repositories.NotesCache;
+import com.mycomp.notesApp.utils.CommonUtils;
+import com.mycomp.notesApp.utils.TextStatisticsEngine;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service maintains word statistics of notes. Statistics are computed
+ * when note's text is written so that reading them is a single lookup, notes
+ * written before statistics existed get them computed on first read
+ * 
+ * @author Rahil
+ *
+ */
+@Service
+@Slf4j
+public class NoteStatsService {
+
+	@Autowired
+	protected NoteStatsRepository noteStatsRepo;
+
+	@Autowired
+	protected NotesCache notesCache;
+
+	@Autowired
+	protected NoteTextStore textStore;
+
+	/* number of most frequent words stored per note, 0 stores all words */
+	@Value("${notes.stats.max-words:1000}")
+	protected int maxWords;
+
+	@Value("${notes.stats.fold-case:true}")
+	protected boolean foldCase;
+
+	/**
+	 * Recomputes statistics of written note, failure is only logged as
+	 * statistics missing in DB are rebuilt on read. Statistics of previous text
+	 * are deleted when new ones can't be saved, so that they are not read as
+	 * current
+	 * 
+	 * @param note - created or modified note
+	 */
+	public void refresh(Note note) {
+		try {
+			noteStatsRepo.save(compute(note));
+		} catch (Exception ex) {
+			log.error("Unable to save statistics of note {}", note.getNoteID());
+			remove(note.getNoteID());
+		}
+	}
+
+	/**
+	 * Recomputes statistics of notes written in batch, existing statistics are
+	 * replaced with two writes instead of one save per note
+	 * 
+	 * @param notes - created or modified notes
+	 */
+	public void refreshAll(List<Note> notes) {
+		if (notes.isEmpty()) {
+			return;
+		}
+		List<NoteStats> noteStats = notes.stream()
+		                                 .map(this::compute)
+		                                 .collect(Collectors.toList());
+		try {
+			noteStatsRepo.deleteByNoteIDIn(noteStats.stream()
+			                                        .map(NoteStats::getNoteID)
+			                                        .collect(Collectors.toList()));
+			noteStatsRepo.insert(noteStats);
+		} catch (Exception ex) {
+			log.error("Unable to save statistics of {} notes", notes.size());
+		}
+	}
+
+	/**
+	 * Removes statistics of notes deleted in batch
+	 * 
+	 * @param noteIDs
+	 */
+	public void removeAll(Collection<String> noteIDs) {
+		if (noteIDs.isEmpty()) {
+			return;
+		}
+		try {
+			noteStatsRepo.deleteByNoteIDIn(noteIDs);
+		} catch (Exception ex) {
+			log.error("Unable to delete statistics of {} notes", noteIDs.size());
+		}
+	}
+
+	/**
+	 * Removes statistics of deleted note
+	 * 
+	 * @param noteID
+	 */
+	public void remove(String noteID) {
+		try {
+			noteStatsRepo.deleteById(noteID);
+		} catch (Exception ex) {
+			log.error("Unable to delete statistics of note {}", noteID);
+		}
+	}
+
+	/**
+	 * @param noteID - note id
+	 * @param top    - number of most frequent words to return, 0 for all stored
+	 *               words
+	 * @return words mapped to their count ordered by count descending
+	 * @throws InputParameterInvalidException when top exceeds number of stored
+	 *                                        words
+	 */
+	public Map<String, Integer> topWords(String noteID, int top) throws DataNotFoundException {
+		int limit = wordsLimit(top);
+		Optional<NoteStats> stats;
+		try {
+			stats = noteStatsRepo.findTopWords(CommonUtils.toDocumentId(noteID), limit);
+		} catch (Exception ex) {
+			String errorMsg = new StringBuilder("Error occured while fetching statistics of note ").append(noteID)
+			                                                                                     .toString();
+			log.error(errorMsg);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
+		return toMap(stats.isPresent() ? stats.get() : backfill(noteID), limit);
+	}
+
+	/**
+	 * @param top - requested number of words, 0 for all stored words
+	 * @return number of words to read
+	 * @throws InputParameterInvalidException when top exceeds
+	 *                                        notes.stats.max-words, as counts of
+	 *                                        words beyond it are not stored
+	 */
+	public int wordsLimit(int top) {
+		if (maxWords > 0 && top > maxWords) {
+			throw new InputParameterInvalidException("top can not exceed " + maxWords + " stored words", "top",
+			        String.valueOf(top));
+		}
+		if (top > 0) {
+			return top;
+		}
+		return maxWords > 0 ? maxWords : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * @return words mapped to their count ordered by count descending
+	 */
+	public Map<String, Integer> toMap(NoteStats noteStats, int limit) {
+		Map<String, Integer> output = new LinkedHashMap<>();
+		noteStats.getWords()
+		         .stream()
+		         .limit(limit)
+		         .forEach(w -> output.put(w.getWord(), w.getCount()));
+		return output;
+	}
+
+	private NoteStats backfill(String noteID) throws DataNotFoundException {
+		Optional<Note> optionalNote;
+		try {
+			optionalNote = notesCache.findByNoteID(noteID);
+		} catch (Exception ex) {
+			String errorMsg = new StringBuilder("Error occured while fetching notes ").append(noteID)
+			                                                                          .toString();
+			log.error(errorMsg);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
+		if (!optionalNote.isPresent()) {
+			throw new DataNotFoundException("Note id " + noteID + " Not found");
+		}
+		log.info("Computing missing statistics of note {}", noteID);
+		NoteStats noteStats = compute(optionalNote.get());
+		try {
+			noteStatsRepo.save(noteStats);
+		} catch (Exception ex) {
+			log.error("Unable to save statistics of note {}", noteID);
+		}
+		return noteStats;
+	}
+
+	/**
+	 * Computes statistics of note without saving them, text held in file is read
+	 * from it
+	 */
+	public NoteStats compute(Note note) {
+		return new NoteStats(note.getNoteID(), TextStatisticsEngine.topWords(textStore.read(note), foldCase,
+		        maxWords > 0 ? maxWords : Integer.MAX_VALUE), LocalDateTime.now());
+	}
+}
@@ -0,0 +1,65 @@
+package com.mycomp.notesApp.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mycomp.notesApp.domain.NotesRevision;
+import com.mycomp.notesApp.repositories.NotesRevisionRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service keeps revision of note collection, incremented after every note
+ * write. Listings are answered as not modified while revision is unchanged, so
+ * notes must only be written through note services
+ *
+ * @author Rahil
+ *
+ */
+@Service
+@Slf4j
+public class NotesRevisionService {
+
+	@Autowired
+	protected NotesRevisionRepository revisionRepo;
+
+	/* highest revision read or written so far, -1 before first one */
+	private final AtomicLong lastRead = new AtomicLong(-1);
+
+	/**
+	 * @return current revision of notes, 0 before first write
+	 */
+	public long current() {
+		long revision = revisionRepo.findById(NotesRevision.NOTES)
+		                            .map(NotesRevision::getRevision)
+		                            .orElse(0L);
+		lastRead.accumulateAndGet(revision, Math::max);
+		return revision;
+	}
+
+	/**
+	 * Revision known without DB access, notes read afterwards carry at least the
+	 * writes it counts. It lags behind writes of other instances until revision
+	 * is read again
+	 * 
+	 * @return highest revision read or written so far, -1 before first one
+	 */
+	public long lastRead() {
+		return lastRead.get();
+	}
+
+	/**
+	 * Called once notes are written, failure is only logged as notes are already
+	 * written, listings then report previous revision until next write
+	 */
+	public void changed() {
+		try {
+			lastRead.accumulateAndGet(revisionRepo.increment(NotesRevision.NOTES), Math::max);
+		} catch (Exception ex) {
+			log.error("Unable to increment notes revision : {}", ex.getMessage());
+		}
+	}
+
+}
@@ -1,32 +1,58 @@
 package com.mycomp.notesApp.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import com.mycomp.notesApp.domain.ErrorCode;
 import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.Status;
+import com.mycomp.notesApp.domain.TagMatch;
 import com.mycomp.notesApp.domain.TAGS;
+import com.mycomp.notesApp.errors.ApiValidationError;
 import com.mycomp.notesApp.exceptions.DataNotFoundException;
 import com.mycomp.notesApp.exceptions.DataNotSavedException;
 import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+import com.mycomp.notesApp.exceptions.PreconditionFailedException;
+import com.mycomp.notesApp.repositories.NoteIndexManager;
+import com.mycomp.notesApp.repositories.NoteInvertedIndex;
+import com.mycomp.notesApp.repositories.NoteTextStore;
+import com.mycomp.notesApp.repositories.NotesCache;
 import com.mycomp.notesApp.repositories.NotesRepository;
+import com.mycomp.notesApp.to.NoteBatchItemTO;
 import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NoteVersionTO;
+import com.mycomp.notesApp.to.NotesBatchResultTO;
+import com.mycomp.notesApp.to.NotesPageTO;
 import com.mycomp.notesApp.to.NotesSummaryTO;
+import com.mycomp.notesApp.utils.AppConstants;
 import com.mycomp.notesApp.utils.CommonUtils;
+import com.mycomp.notesApp.utils.CursorTokens;
 import com.mycomp.notesApp.utils.DTOMapper;
+import com.mycomp.notesApp.utils.TextStatisticsEngine;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -52,11 +78,37 @@ public class NotesServiceImpl implements NoteService {
 	@Autowired
 	protected NotesRepository notesRepo;
 
+	@Autowired
+	protected NotesCache notesCache;
+
+	@Autowired
+	protected NoteStatsService noteStatsService;
+
+	@Autowired
+	protected NoteInvertedIndex invertedIndex;
+
+	@Autowired
+	protected TagQueryPlanner tagQueryPlanner;
+
+	@Autowired
+	protected TagCountService tagCountService;
+
+	@Autowired
+	protected NoteTextStore textStore;
+
+	@Autowired
+	protected NotesRevisionService revisionService;
+
+	@Autowired
+	protected NoteIndexManager indexManager;
+
 	/**
 	 * This operation adds new note supports writable transaction and performs input
 	 * validation before saving
 	 * 
-	 * performs title check as same title note is not allowed as of now
+	 * same title note is not allowed as of now, title check is left to unique
+	 * index on title so note is added with a single insert, unless index is not
+	 * known to be in place
 	 * 
 	 * @param inputNote - Service input
 	 * @return NoteTO - transfer object
@@ -65,31 +117,34 @@ public class NotesServiceImpl implements NoteService {
 	@Transactional
 	public NoteTO createNote(NoteTO inputNote) throws InputParameterInvalidException, DataNotSavedException {
 		// TODO User tracking can be added in future
-		log.info("User XYZ Trying to add note" + inputNote);
+		log.info("User XYZ trying to add note {}", inputNote.getNoteTitle());
 		validateInput(inputNote);
-		Optional<Note> notesByTitle;
-		try {
-			notesByTitle = notesRepo.findByNoteTitle(inputNote.getNoteTitle());
-		} catch (Exception ex) {
-			log.error("Error while fetching note by title ");
-			throw new DataNotFoundException("Error while fetching note by title", ex);
-		}
-		if (notesByTitle.isPresent()) {
-			log.error("note by title already exists ");
-			throw new InputParameterInvalidException("note by title already exists");
-		}
+		checkTitleFree(inputNote.getNoteTitle(), null);
 		Note savedNote = null;
+		Note note = null;
 		try {
-			Note note = dtoMapper.getMapper().map(inputNote, Note.class);
+			note = dtoMapper.toNote(inputNote);
+			// id is assigned by DB, passed id would turn insert into a duplicate key
+			note.setNoteID(null);
 			note.setCreateDate(LocalDateTime.now());
-			log.info("User XYZ Trying to add note" + note);
-			savedNote = notesRepo.save(note);
+			savedNote = notesRepo.insert(note);
 
+		} catch (DuplicateKeyException ex) {
+			log.error("note by title already exists ");
+			textStore.discard(note);
+			throw new InputParameterInvalidException("note by title already exists", "noteTitle",
+			        inputNote.getNoteTitle());
 		} catch (Exception ex) {
-			log.error("Unable to add note " + inputNote);
+			log.error("Unable to add note {}", inputNote.getNoteTitle());
+			textStore.discard(note);
 			throw new DataNotSavedException("Unable to add note ", ex);
 		}
-		return dtoMapper.getMapper().map(savedNote, NoteTO.class);
+		notesCache.evict(savedNote.getNoteID());
+		noteStatsService.refresh(savedNote);
+		invertedIndex.put(savedNote);
+		tagCountService.changed(savedNote.getCreateDate(), null, savedNote.getTags());
+		revisionService.changed();
+		return toNoteTO(savedNote);
 
 	}
 
@@ -101,17 +156,39 @@ public class NotesServiceImpl implements NoteService {
 	 * @param inputNote
 	 */
 	private void validateInput(NoteTO inputNote) {
-		restValidationService.setValidatableObj(inputNote);
-		boolean isValid = restValidationService.validate();
+		boolean isValid = restValidationService.validate(inputNote);
 		if (isValid) {
 			log.info("input validation passed");
 		}
 	}
 
 	/**
-	 * This operation supports note modification supports writable transaction first
-	 * fetches the existing note with given id then change it as per input and
-	 * updates the DB
+	 * Title check of single note writes while unique index on title is not known
+	 * to be in place, index otherwise rejects same title as duplicate key
+	 * 
+	 * @param noteID - note being modified, null for new note
+	 */
+	private void checkTitleFree(String title, String noteID) {
+		if (indexManager.isTitleUnique() || CommonUtils.isStringNullorEmpty(title)) {
+			return;
+		}
+		boolean taken;
+		try {
+			taken = notesRepo.existsByNoteTitleAndNoteIDNot(title, noteID);
+		} catch (Exception ex) {
+			log.error("Error while fetching note by title ");
+			throw new DataNotFoundException("Error while fetching note by title", ex);
+		}
+		if (taken) {
+			log.error("note by title already exists ");
+			throw new InputParameterInvalidException("note by title already exists", "noteTitle", title);
+		}
+	}
+
+	/**
+	 * This operation supports note modification supports writable transaction,
+	 * note is changed as per input with a single atomic find and modify returning
+	 * note before change, modified note is derived from it
 	 * 
 	 * @param inputNote - Service input
 	 * @return NoteTO - transfer object
@@ -119,103 +196,411 @@ public class NotesServiceImpl implements NoteService {
 	@Override
 	@Transactional
 	public NoteTO updateNote(NoteTO inputNote) throws DataNotSavedException, InputParameterInvalidException {
-		log.info("Trying to update note" + inputNote);
+		return updateNote(inputNote, null);
+	}
+
+	/**
+	 * Version check is part of find and modify query, note changed meanwhile is
+	 * told apart from missing note by a second lookup
+	 */
+	@Override
+	@Transactional
+	public NoteTO updateNote(NoteTO inputNote, List<Long> expectedVersions)
+	        throws DataNotSavedException, InputParameterInvalidException {
+		log.info("Trying to update note {}", inputNote.getNoteID());
 		validateInput(inputNote);
-		Optional<Note> findByNoteID;
+		checkTitleFree(inputNote.getNoteTitle(), inputNote.getNoteID());
+		LocalDateTime updateDate = LocalDateTime.now();
+		Note change = new Note();
+		change.setNoteID(inputNote.getNoteID());
+		NoteServiceSupport.prepareNoteToUpdate(change, inputNote, updateDate);
+		Note savedNote;
 		try {
-			findByNoteID = notesRepo.findByNoteID(inputNote.getNoteID());
+			savedNote = notesRepo.findAndUpdate(change, expectedVersions);
+		} catch (DuplicateKeyException ex) {
+			log.error("note by title already exists ");
+			throw new InputParameterInvalidException("note by title already exists", "noteTitle",
+			        inputNote.getNoteTitle());
 		} catch (Exception ex) {
-			String errorMsg = new StringBuilder("Error occured while fetching note ").append(inputNote.getNoteID())
+			String errorMsg = new StringBuilder("Error occured while modifying note ").append(inputNote.getNoteID())
 					.toString();
 			// String errorMsg = "error";
 			log.error(errorMsg);
-			throw new DataNotFoundException(errorMsg, ex);
+			throw new DataNotSavedException(errorMsg, ex);
 		}
-		if (!findByNoteID.isPresent()) {
+		if (savedNote == null) {
+			versionChanged(inputNote.getNoteID(), expectedVersions);
 			String errorMsg = "Note with id : " + inputNote.getNoteID() + " not found";
 			log.error(errorMsg);
 			throw new DataNotFoundException(errorMsg);
 		}
-		Note savedNote = findByNoteID.get();
-		prepareNoteToUpdate(savedNote, inputNote);
-		log.info("updated note : " + savedNote);
-		Note updatedNote = null;
+		String previousText = savedNote.getNoteText();
+		List<String> previousTags = savedNote.getTags();
+		NoteServiceSupport.prepareNoteToUpdate(savedNote, inputNote, updateDate);
+		// find and modify returned note before its version was incremented
+		savedNote.setVersion(savedNote.getVersion() + 1);
+		log.info("updated note {}", savedNote.getNoteID());
+		Note updatedNote = savedNote;
+		notesCache.evict(updatedNote.getNoteID());
+		invertedIndex.put(updatedNote);
+		tagCountService.changed(updatedNote.getCreateDate(), previousTags, updatedNote.getTags());
+		if (!Objects.equals(previousText, updatedNote.getNoteText())) {
+			noteStatsService.refresh(updatedNote);
+		}
+		revisionService.changed();
+		return toNoteTO(updatedNote);
+
+	}
+
+	/**
+	 * This operation deletes note in the system if exists, with a single atomic
+	 * find and remove
+	 * 
+	 * @return - true if deletion success , false otherwise
+	 */
+	@Override
+	@Transactional
+	public boolean deleteNote(String noteID) throws DataNotSavedException {
+		return deleteNote(noteID, null);
+	}
+
+	@Override
+	@Transactional
+	public boolean deleteNote(String noteID, List<Long> expectedVersions) throws DataNotSavedException {
+		// TODO user tracking in future
+		log.info("User XYZ trying to delete note {}", noteID);
+		validateInput(noteID);
+		Note removedNote;
 		try {
-			updatedNote = notesRepo.save(savedNote);
+			removedNote = notesRepo.findAndDelete(noteID, expectedVersions);
 		} catch (Exception ex) {
-			String errorMsg = new StringBuilder("Error occured while modifying note ").append(updatedNote).toString();
-			// String errorMsg = "error";
+			String errorMsg = new StringBuilder("Error occured while deleting notes ").append(noteID).toString();
+			// String errorMsg = "";
 			log.error(errorMsg);
 			throw new DataNotSavedException(errorMsg, ex);
 		}
-		return dtoMapper.getMapper().map(updatedNote, NoteTO.class);
+		if (removedNote == null) {
+			versionChanged(noteID, expectedVersions);
+			throw new DataNotFoundException("Note id " + noteID + "Not found");
+		}
+		notesCache.evict(noteID);
+		noteStatsService.remove(noteID);
+		invertedIndex.remove(noteID);
+		tagCountService.changed(removedNote.getCreateDate(), removedNote.getTags(), null);
+		revisionService.changed();
+		return true;
+	}
 
+	/**
+	 * Reports note which was not written as changed if it exists, it is missing
+	 * otherwise
+	 */
+	private void versionChanged(String noteID, List<Long> expectedVersions) {
+		if (expectedVersions != null && notesRepo.existsByNoteID(noteID)) {
+			String errorMsg = "Note with id : " + noteID + " has changed";
+			log.error(errorMsg);
+			throw new PreconditionFailedException(errorMsg);
+		}
 	}
 
 	/**
-	 * This method maps note's details passed in input to entity to be modified
+	 * Helper method for input validation
 	 * 
-	 * @param savedNote - Entity to be modified
-	 * @param inputNote - input to the service
+	 * @param noteID
 	 */
-	private void prepareNoteToUpdate(Note savedNote, NoteTO inputNote) {
-		log.info(new StringBuilder("preparing object to be modified using ").append(inputNote).toString());
-		// log.info("error");
-		if (!CommonUtils.isStringNullorEmpty(inputNote.getNoteTitle())) {
-			savedNote.setNoteTitle(inputNote.getNoteTitle());
+	private void validateInput(String noteID) {
+		if (noteID == null) {
+			throw new InputParameterInvalidException("Note id not passed to delete note", "noteID", "null/empty");
 		}
-		if (!CommonUtils.isStringNullorEmpty(inputNote.getNoteText())) {
-			savedNote.setNoteText(inputNote.getNoteText());
+	}
+
+	/**
+	 * This operation adds notes in batch. Every note is validated, titles are
+	 * checked against existing notes with one query and notes are written with
+	 * one unordered bulk insert, so failing notes don't stop the others
+	 * 
+	 * @param inputNotes - notes to add
+	 * @return outcome of every note
+	 */
+	@Override
+	public NotesBatchResultTO createNotes(List<NoteTO> inputNotes)
+	        throws InputParameterInvalidException, DataNotSavedException {
+		// TODO User tracking can be added in future
+		validateBatch(inputNotes);
+		log.info("User XYZ trying to add {} notes", inputNotes.size());
+		NoteBatchItemTO[] items = new NoteBatchItemTO[inputNotes.size()];
+		Map<String, Integer> positionByTitle = new LinkedHashMap<>();
+		for (int i = 0; i < inputNotes.size(); i++) {
+			NoteTO inputNote = inputNotes.get(i);
+			String error = validationError(inputNote);
+			if (error == null && positionByTitle.putIfAbsent(inputNote.getNoteTitle(), i) != null) {
+				error = "note by title repeated in batch";
+			}
+			if (error != null) {
+				items[i] = batchFailure(i, null, error);
+			}
+		}
+		Set<String> existingTitles;
+		try {
+			existingTitles = positionByTitle.isEmpty() ? Collections.emptySet()
+			        : notesRepo.findTitlesIn(positionByTitle.keySet())
+			                   .stream()
+			                   .map(Note::getNoteTitle)
+			                   .collect(Collectors.toSet());
+		} catch (Exception ex) {
+			log.error("Error while fetching notes by title ");
+			throw new DataNotFoundException("Error while fetching notes by title", ex);
+		}
+		LocalDateTime createDate = LocalDateTime.now();
+		List<Note> notes = new ArrayList<>();
+		List<Integer> positions = new ArrayList<>();
+		for (Map.Entry<String, Integer> title : positionByTitle.entrySet()) {
+			int i = title.getValue();
+			if (existingTitles.contains(title.getKey())) {
+				items[i] = batchFailure(i, null, "note by title already exists");
+				continue;
+			}
+			Note note = dtoMapper.toNote(inputNotes.get(i));
+			// ids are assigned here so that every note can be reported without reading it back
+			note.setNoteID(new ObjectId().toHexString());
+			note.setCreateDate(createDate);
+			note.setUpdateDate(null);
+			notes.add(note);
+			positions.add(i);
 		}
-		if (!CommonUtils.isListEmpty(inputNote.getTags())) {
-			savedNote.setTags(inputNote.getTags());
+		List<Note> savedNotes = applyBatch(notes, positions, items, notesRepo::bulkInsert, "add");
+		savedNotes.forEach(note -> notesCache.evict(note.getNoteID()));
+		noteStatsService.refreshAll(savedNotes);
+		invertedIndex.putAll(savedNotes);
+		tagCountService.changedAll(null, savedNotes);
+		if (!savedNotes.isEmpty()) {
+			revisionService.changed();
 		}
-		savedNote.setUpdateDate(LocalDateTime.now());
+		return batchResult(items);
 	}
 
 	/**
-	 * This operation deletes note in the system if exists
+	 * This operation modifies notes in batch. Existing notes and titles are looked
+	 * up with one query each and changes are written with one unordered bulk
+	 * update, notes are not read back
 	 * 
-	 * @return - true if deletion success , false otherwise
+	 * @param inputNotes - notes to modify, noteID is required
+	 * @return outcome of every note
 	 */
 	@Override
-	@Transactional
-	public boolean deleteNote(String noteID) throws DataNotSavedException {
-		// TODO user tracking in future
-		log.info("User XYZ trying to delete note " + noteID);
-		validateInput(noteID);
-		Optional<Note> findByNoteID;
+	public NotesBatchResultTO updateNotes(List<NoteTO> inputNotes)
+	        throws InputParameterInvalidException, DataNotSavedException {
+		validateBatch(inputNotes);
+		log.info("Trying to update {} notes", inputNotes.size());
+		NoteBatchItemTO[] items = new NoteBatchItemTO[inputNotes.size()];
+		Map<String, Integer> positionByID = new LinkedHashMap<>();
+		Set<String> titles = new HashSet<>();
+		for (int i = 0; i < inputNotes.size(); i++) {
+			NoteTO inputNote = inputNotes.get(i);
+			String error = CommonUtils.isStringNullorEmpty(inputNote.getNoteID()) ? "Note id not passed"
+			        : validationError(inputNote);
+			if (error == null && positionByID.putIfAbsent(inputNote.getNoteID(), i) != null) {
+				error = "note id repeated in batch";
+			} else if (error == null && !titles.add(inputNote.getNoteTitle())) {
+				positionByID.remove(inputNote.getNoteID());
+				error = "note by title repeated in batch";
+			}
+			if (error != null) {
+				items[i] = batchFailure(i, inputNote.getNoteID(), error);
+			}
+		}
+		Map<String, Note> existingNotes;
+		Map<String, String> titleOwners;
 		try {
-			findByNoteID = notesRepo.findByNoteID(noteID);
+			existingNotes = positionByID.isEmpty() ? Collections.emptyMap()
+			        : notesRepo.findTitlesByNoteIDIn(toDocumentIds(positionByID.keySet()))
+			                   .stream()
+			                   .collect(Collectors.toMap(Note::getNoteID, Function.identity()));
+			titleOwners = titles.isEmpty() ? Collections.emptyMap()
+			        : notesRepo.findTitlesIn(titles)
+			                   .stream()
+			                   .collect(Collectors.toMap(Note::getNoteTitle, Note::getNoteID));
 		} catch (Exception ex) {
-			String errorMsg = new StringBuilder("Error occured while fetching notes ").append(noteID).toString();
-			// String errorMsg = "";
+			String errorMsg = "Error occured while fetching notes ";
 			log.error(errorMsg);
 			throw new DataNotFoundException(errorMsg, ex);
 		}
-		if (!findByNoteID.isPresent()) {
-			throw new DataNotFoundException("Note id " + noteID + "Not found");
+		LocalDateTime updateDate = LocalDateTime.now();
+		List<Note> changes = new ArrayList<>();
+		List<Integer> positions = new ArrayList<>();
+		for (Map.Entry<String, Integer> noteID : positionByID.entrySet()) {
+			int i = noteID.getValue();
+			NoteTO inputNote = inputNotes.get(i);
+			String titleOwner = titleOwners.get(inputNote.getNoteTitle());
+			if (!existingNotes.containsKey(noteID.getKey())) {
+				items[i] = batchFailure(i, noteID.getKey(), "Note with id : " + noteID.getKey() + " not found");
+			} else if (titleOwner != null && !titleOwner.equals(noteID.getKey())) {
+				items[i] = batchFailure(i, noteID.getKey(), "note by title already exists");
+			} else {
+				changes.add(new Note(noteID.getKey(), inputNote.getNoteTitle(), null, updateDate,
+				        inputNote.getNoteText(), CommonUtils.isListEmpty(inputNote.getTags()) ? null
+				                : new ArrayList<>(inputNote.getTags()), null));
+				positions.add(i);
+			}
+		}
+		List<Note> updatedNotes = applyBatch(changes, positions, items, notesRepo::bulkUpdate, "modify");
+		updatedNotes.forEach(note -> notesCache.evict(note.getNoteID()));
+		noteStatsService.refreshAll(updatedNotes);
+		// changes are partial, index reads modified notes back
+		invertedIndex.refresh(updatedNotes.stream()
+		                                  .map(Note::getNoteID)
+		                                  .collect(Collectors.toList()));
+		List<Note> retagged = updatedNotes.stream()
+		                                  .filter(note -> note.getTags() != null)
+		                                  .collect(Collectors.toList());
+		tagCountService.changedAll(retagged.stream()
+		                                   .map(note -> existingNotes.get(note.getNoteID()))
+		                                   .collect(Collectors.toList()),
+		        retagged);
+		if (!updatedNotes.isEmpty()) {
+			revisionService.changed();
 		}
+		return batchResult(items);
+	}
+
+	/**
+	 * This operation deletes notes in batch with one lookup and one delete
+	 * 
+	 * @param noteIDs - ids of notes to delete
+	 * @return outcome of every note
+	 */
+	@Override
+	public NotesBatchResultTO deleteNotes(List<String> noteIDs) throws DataNotSavedException {
+		validateBatch(noteIDs);
+		log.info("User XYZ trying to delete {} notes", noteIDs.size());
+		NoteBatchItemTO[] items = new NoteBatchItemTO[noteIDs.size()];
+		Map<String, Integer> positionByID = new LinkedHashMap<>();
+		for (int i = 0; i < noteIDs.size(); i++) {
+			String noteID = noteIDs.get(i);
+			if (CommonUtils.isStringNullorEmpty(noteID)) {
+				items[i] = batchFailure(i, noteID, "Note id not passed");
+			} else if (positionByID.putIfAbsent(noteID, i) != null) {
+				items[i] = batchFailure(i, noteID, "note id repeated in batch");
+			}
+		}
+		Map<String, Note> existingNotes;
 		try {
-			notesRepo.deleteByNoteID(noteID);
+			existingNotes = positionByID.isEmpty() ? Collections.emptyMap()
+			        : notesRepo.findTitlesByNoteIDIn(toDocumentIds(positionByID.keySet()))
+			                   .stream()
+			                   .collect(Collectors.toMap(Note::getNoteID, Function.identity()));
 		} catch (Exception ex) {
-			String errorMsg = new StringBuilder("Error occured while deleting notes ").append(noteID).toString();
-			// String errorMsg = "";
+			String errorMsg = "Error occured while fetching notes ";
 			log.error(errorMsg);
-			throw new DataNotSavedException(errorMsg, ex);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
+		Set<String> existingIDs = existingNotes.keySet();
+		for (Map.Entry<String, Integer> noteID : positionByID.entrySet()) {
+			int i = noteID.getValue();
+			items[i] = existingIDs.contains(noteID.getKey()) ? batchSuccess(i, noteID.getKey())
+			        : batchFailure(i, noteID.getKey(), "Note id " + noteID.getKey() + " Not found");
+		}
+		if (!existingIDs.isEmpty()) {
+			try {
+				notesRepo.bulkDelete(existingIDs);
+			} catch (Exception ex) {
+				String errorMsg = "Error occured while deleting " + existingIDs.size() + " notes";
+				log.error(errorMsg);
+				throw new DataNotSavedException(errorMsg, ex);
+			}
+		}
+		existingIDs.forEach(notesCache::evict);
+		noteStatsService.removeAll(existingIDs);
+		invertedIndex.removeAll(existingIDs);
+		tagCountService.changedAll(new ArrayList<>(existingNotes.values()), null);
+		if (!existingIDs.isEmpty()) {
+			revisionService.changed();
+		}
+		return batchResult(items);
+	}
+
+	private void validateBatch(List<?> batch) {
+		if (CommonUtils.isListEmpty(batch)) {
+			throw new InputParameterInvalidException("Notes not passed in batch", "notes", "null/empty");
+		}
+		if (batch.size() > AppConstants.MAX_BATCH_SIZE) {
+			throw new InputParameterInvalidException("Batch can not exceed " + AppConstants.MAX_BATCH_SIZE + " notes",
+			        "notes", String.valueOf(batch.size()));
 		}
-		return true;
 	}
 
 	/**
-	 * Helper method for input validation
+	 * Validates note of batch, failure is reported for the note instead of failing
+	 * whole batch
 	 * 
-	 * @param noteID
+	 * @return validation error, null if note is valid
 	 */
-	private void validateInput(String noteID) {
-		if (noteID == null) {
-			throw new InputParameterInvalidException("Note id not passed to delete note", "noteID", "null/empty");
+	private String validationError(NoteTO inputNote) {
+		List<ApiValidationError> violations = restValidationService.violations(inputNote);
+		if (violations.isEmpty()) {
+			return null;
 		}
+		return violations.stream()
+		                 .map(ApiValidationError::getMessage)
+		                 .collect(Collectors.joining(", "));
+	}
+
+	/**
+	 * Writes notes of batch and records outcome of every written note
+	 * 
+	 * @return notes written succesfully
+	 */
+	private List<Note> applyBatch(List<Note> notes, List<Integer> positions, NoteBatchItemTO[] items,
+	        Function<List<Note>, Map<Integer, String>> write, String action) throws DataNotSavedException {
+		if (notes.isEmpty()) {
+			return notes;
+		}
+		Map<Integer, String> errors;
+		try {
+			errors = write.apply(notes);
+		} catch (Exception ex) {
+			String errorMsg = "Unable to " + action + " " + notes.size() + " notes";
+			log.error(errorMsg);
+			throw new DataNotSavedException(errorMsg, ex);
+		}
+		List<Note> written = new ArrayList<>(notes.size());
+		for (int j = 0; j < notes.size(); j++) {
+			int i = positions.get(j);
+			String error = errors.get(j);
+			if (error == null) {
+				items[i] = batchSuccess(i, notes.get(j)
+				                                .getNoteID());
+				written.add(notes.get(j));
+			} else {
+				items[i] = batchFailure(i, null, error);
+			}
+		}
+		if (!errors.isEmpty()) {
+			log.error("{} of {} notes could not be written", errors.size(), notes.size());
+		}
+		return written;
+	}
+
+	private static NoteBatchItemTO batchSuccess(int index, String noteID) {
+		return new NoteBatchItemTO(index, noteID, new Status(ErrorCode.SUCCESS, AppConstants.SUCCESS_DESCRIPTION));
+	}
+
+	private static NoteBatchItemTO batchFailure(int index, String noteID, String description) {
+		return new NoteBatchItemTO(index, noteID, new Status(ErrorCode.FAILURE, description));
+	}
+
+	private static NotesBatchResultTO batchResult(NoteBatchItemTO[] items) {
+		int failed = (int) Arrays.stream(items)
+		                         .filter(item -> item.getStatus()
+		                                             .getStatusCode() == ErrorCode.FAILURE)
+		                         .count();
+		return new NotesBatchResultTO(items.length - failed, failed, Arrays.asList(items));
+	}
+
+	private static List<Object> toDocumentIds(Collection<String> noteIDs) {
+		return noteIDs.stream()
+		              .map(CommonUtils::toDocumentId)
+		              .collect(Collectors.toList());
 	}
 
 	/**
@@ -238,12 +623,41 @@ public class NotesServiceImpl implements NoteService {
 			log.error("No notes found");
 			throw new DataNotFoundException("No notes found");
 		}
-		List<NoteTO> lstNotesTO = allNotes.stream().map(e -> dtoMapper.getMapper().map(e, NoteTO.class))
+		List<NoteTO> lstNotesTO = allNotes.stream().map(this::toNoteTO)
 				.collect(Collectors.toList());
 
 		return lstNotesTO;
 	}
 
+	/**
+	 * This operation opens streaming listing of notes ordered by id, notes are read
+	 * from database cursor as caller consumes them so memory stays bounded
+	 *
+	 * @param continuationToken - token returned by previous stream, null to start
+	 *                          from beginning
+	 * @param limit             - max notes to return, 0 for no limit
+	 * @return NotesStream - must be closed by caller
+	 */
+	@Override
+	public NotesStream streamNotes(String continuationToken, int limit)
+	        throws DataNotFoundException, InputParameterInvalidException {
+		log.info("User XYZ trying to stream notes");
+		if (limit < 0) {
+			throw new InputParameterInvalidException("limit can not be negative", "limit", String.valueOf(limit));
+		}
+		String afterNoteID = continuationToken == null ? null : CursorTokens.decode(continuationToken, 1, "continuationToken")[0];
+		CloseableIterator<Note> cursor;
+		try {
+			// one extra note is read to know whether continuation token is needed
+			cursor = notesRepo.streamAfter(afterNoteID, limit > 0 ? limit + 1 : 0);
+		} catch (Exception ex) {
+			String errorMsg = "Error occured while fetching notes ";
+			log.error(errorMsg);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
+		return new NotesStream(cursor, this::toNoteTO, limit);
+	}
+
 	/**
 	 * This operation checks if note exists or not ,supports read only transaction
 	 */
@@ -253,7 +667,7 @@ public class NotesServiceImpl implements NoteService {
 		validateInput(id);
 		boolean isExists;
 		try {
-			isExists = notesRepo.existsByNoteID(id);
+			isExists = notesCache.existsByNoteID(id);
 		} catch (Exception ex) {
 			String errorMsg = "error occured while fetching notes";
 			log.error(errorMsg);
@@ -270,11 +684,11 @@ public class NotesServiceImpl implements NoteService {
 	@Transactional(readOnly = true)
 	public NoteTO searchNote(String noteID) throws DataNotFoundException {
 		// TODO User tracking can be added in future
-		log.info("User XYZ trying to search notes" + noteID);
+		log.info("User XYZ trying to search note {}", noteID);
 		validateInput(noteID);
 		Optional<Note> optionalNote;
 		try {
-			optionalNote = notesRepo.findByNoteID(noteID);
+			optionalNote = notesCache.findByNoteID(noteID);
 		} catch (Exception ex) {
 			// String errorMsg = new StringBuilder("Error occured while fetching notes
 			// ").append(noteID)
@@ -286,33 +700,30 @@ public class NotesServiceImpl implements NoteService {
 		if (!optionalNote.isPresent()) {
 			throw new DataNotFoundException("Note id " + noteID + " Not found");
 		}
-		return dtoMapper.getMapper().map(optionalNote.get(), NoteTO.class);
+		return toNoteTO(optionalNote.get());
 	}
 
 	@Override
 	public Map<String, Integer> statsPerNote(String noteID) throws DataNotFoundException {
-		log.info("User XYZ trying to check note's statistics" + noteID);
+		return statsPerNote(noteID, 0);
+	}
+
+	/**
+	 * This operation returns word statistics of note, statistics are computed when
+	 * note is written so this is a single lookup
+	 * 
+	 * @param noteID - note id
+	 * @param top    - number of most frequent words, 0 for all
+	 * @return words mapped to their count ordered by count descending
+	 */
+	@Override
+	public Map<String, Integer> statsPerNote(String noteID, int top) throws DataNotFoundException {
+		log.info("User XYZ trying to check statistics of note {}", noteID);
 		validateInput(noteID);
-		Optional<Note> optionalNote;
-		try {
-			optionalNote = notesRepo.findByNoteID(noteID);
-		} catch (Exception ex) {
-			String errorMsg = new StringBuilder("Error occured while fetching notes ").append(noteID).toString();
-			// String errorMsg = "error";
-			log.error(errorMsg);
-			throw new DataNotFoundException(errorMsg, ex);
-		}
-		if (!optionalNote.isPresent()) {
-			throw new DataNotFoundException("Note id " + noteID + " Not found");
+		if (top < 0) {
+			throw new InputParameterInvalidException("top can not be negative", "top", String.valueOf(top));
 		}
-		Note noteReturned = optionalNote.get();
-		String text = noteReturned.getNoteText();
-		Map<String, Integer> output = new HashMap<String, Integer>();
-		for (String word : text.split(" ")) {
-			output.put(word, output.getOrDefault(word, 0) + 1);
-		}
-		return output.entrySet().stream().sorted(Collections.reverseOrder(Map.Entry.comparingByValue()))
-				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		return noteStatsService.topWords(noteID, top);
 	}
 
 	/**
@@ -330,16 +741,18 @@ public class NotesServiceImpl implements NoteService {
 	public List<NotesSummaryTO> listNotesSummary(int page, int size, String[] filters) throws DataNotFoundException {
 		// TODO user tracking in future can be added
 		log.info("User XYZ trying to fetch all notes");
-		Page<Note> allNotes;
+		Pageable requestedPage = NoteServiceSupport.newestFirstPageRequest(page, size);
+		List<Note> allNotes;
 		try {
-			if (filters == null || filters.length == 0) {	
-				Pageable requestedPage = PageRequest.of(page, size, Sort.by("createDate").descending());
-				allNotes = notesRepo.findAll(requestedPage);
+			if (filters == null || filters.length == 0) {
+				allNotes = notesRepo.findSummaryPage(requestedPage);
 			} else {
-				List<String> tags = Arrays.asList(filters);
-				Pageable requestedPage = PageRequest.of(page, size, Sort.by("createDate").descending());
-				log.info("searching for : " + tags);
-				allNotes = notesRepo.findAnyOfTheseValues(tags, requestedPage);
+				List<String> tags = tagQueryPlanner.plan(Arrays.asList(filters), TagMatch.ALL);
+				log.info("searching for : {}", tags);
+				allNotes = invertedIndex.isReady()
+				        ? notesRepo.findByNoteIDs(invertedIndex.match(tags, TagMatch.ALL, null, (long) page * size, size),
+				                true)
+				        : notesRepo.findTaggedSummaryPage(tags, requestedPage);
 			}
 		} catch (Exception ex) {
 			String errorMsg = "Error occured while fetching notes ";
@@ -350,19 +763,91 @@ public class NotesServiceImpl implements NoteService {
 			log.error("No notes found");
 			throw new DataNotFoundException("No notes found");
 		}
-		List<NotesSummaryTO> notesList = allNotes.toList().stream()
-				.map(e -> dtoMapper.getMapper().map(e, NotesSummaryTO.class)).collect(Collectors.toList());
+		List<NotesSummaryTO> notesList = allNotes.stream()
+				.map(dtoMapper::toSummaryTO).collect(Collectors.toList());
 
 		return notesList;
 	}
 
+
+	/**
+	 * This operation searches notes by words of their title and text with text
+	 * index, title matches weigh more than text matches
+	 * 
+	 * @param text - words or "phrases" to search, -word excludes notes
+	 * @param page - page number
+	 * @param size - each page size
+	 * @return - notes summary ordered by relevance descending, with score
+	 */
+	@Override
+	public List<NotesSummaryTO> searchNotes(String text, int page, int size)
+	        throws DataNotFoundException, InputParameterInvalidException {
+		log.info("User XYZ trying to search notes by text {}", text);
+		Pageable requestedPage = NoteServiceSupport.searchPageRequest(text, page, size);
+		List<Note> foundNotes;
+		try {
+			foundNotes = notesRepo.searchSummaryPage(text, requestedPage);
+		} catch (Exception ex) {
+			String errorMsg = "Error occured while searching notes ";
+			log.error(errorMsg);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
+		if (foundNotes == null || foundNotes.isEmpty()) {
+			log.error("No notes found");
+			throw new DataNotFoundException("No notes found");
+		}
+		return foundNotes.stream()
+		                 .map(dtoMapper::toSummaryTO)
+		                 .collect(Collectors.toList());
+	}
+
+	/**
+	 * This operation returns summary of notes having tags and words, notes are
+	 * filtered by in memory inverted index when it is enabled and loaded and by DB
+	 * otherwise
+	 * 
+	 * @param tags   - tags to filter, null or empty for any
+	 * @param match  - notes having ANY, ALL or NONE of tags
+	 * @param words  - words notes must contain in title or text
+	 * @param page   - page number
+	 * @param size   - each page size
+	 * @return - notes summary ordered by creation date descending
+	 */
+	@Override
+	public List<NotesSummaryTO> matchNotes(String[] tags, TagMatch match, String words, int page, int size)
+	        throws DataNotFoundException, InputParameterInvalidException {
+		log.info("User XYZ trying to match notes by tags and words {}", words);
+		Pageable requestedPage = NoteServiceSupport.matchPageRequest(words, page, size);
+		TagMatch tagMatch = match == null ? TagMatch.ALL : match;
+		List<String> tagList = tags == null ? null : tagQueryPlanner.plan(Arrays.asList(tags), tagMatch);
+		List<Note> foundNotes;
+		try {
+			foundNotes = invertedIndex.isReady()
+			        ? notesRepo.findByNoteIDs(invertedIndex.match(tagList, tagMatch, words, (long) page * size, size),
+			                true)
+			        : notesRepo.findMatchingSummaryPage(tagList, tagMatch, TextStatisticsEngine.distinctWords(words, true),
+			                requestedPage);
+		} catch (Exception ex) {
+			String errorMsg = "Error occured while matching notes ";
+			log.error(errorMsg);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
+		if (foundNotes == null || foundNotes.isEmpty()) {
+			log.error("No notes found");
+			throw new DataNotFoundException("No notes found");
+		}
+		return foundNotes.stream()
+		                 .map(dtoMapper::toSummaryTO)
+		                 .collect(Collectors.toList());
+	}
+
 	@Override
 	public List<NoteTO> listNotesPageable(int page, int size) throws DataNotFoundException {
 		// TODO user tracking in future can be added
 		log.info("User XYZ trying to fetch all notes");
+		Pageable requestedPage = NoteServiceSupport.newestFirstPageRequest(page, size);
 		Page<Note> allNotes;
 		try {
-			Pageable requestedPage = PageRequest.of(page, size, Sort.by("createDate").descending());
 			allNotes = notesRepo.findAll(requestedPage);
 		} catch (Exception ex) {
 			String errorMsg = "Error occured while fetching notes ";
@@ -373,23 +858,122 @@ public class NotesServiceImpl implements NoteService {
 			log.error("No notes found");
 			throw new DataNotFoundException("No notes found");
 		}
-		List<NoteTO> lstNotesTO = allNotes.toList().stream().map(e -> dtoMapper.getMapper().map(e, NoteTO.class))
+		List<NoteTO> lstNotesTO = allNotes.toList().stream().map(this::toNoteTO)
 				.collect(Collectors.toList());
 
 		return lstNotesTO;
 	}
 
+	/**
+	 * This operation returns note's listing summary using keyset pagination,
+	 * sorted by creation date descending and filtered by tags. Cost of every page
+	 * is same regardless of its position as no documents are skipped and no count
+	 * is performed
+	 *
+	 * @param cursor  - nextCursor of previous page, null for first page
+	 * @param size    - page size
+	 * @param filters - list of tags to filter
+	 * @return - page of notes with cursor to next page
+	 */
+	@Override
+	public NotesPageTO<NotesSummaryTO> listNotesSummaryAfter(String cursor, int size, String[] filters)
+	        throws DataNotFoundException, InputParameterInvalidException {
+		log.info("User XYZ trying to fetch notes summary after cursor");
+		List<String> tags = filters == null || filters.length == 0 ? null
+		        : tagQueryPlanner.plan(Arrays.asList(filters), TagMatch.ALL);
+		return fetchPageAfter(cursor, size, tags, true, dtoMapper::toSummaryTO);
+	}
+
+	/**
+	 * This operation returns notes using keyset pagination sorted by creation date
+	 * descending
+	 *
+	 * @param cursor - nextCursor of previous page, null for first page
+	 * @param size   - page size
+	 * @return - page of notes with cursor to next page
+	 */
 	@Override
-	public List<NoteTO> listNotesFiltered(List<String> tags) throws DataNotFoundException {
+	public NotesPageTO<NoteTO> listNotesAfter(String cursor, int size)
+	        throws DataNotFoundException, InputParameterInvalidException {
+		log.info("User XYZ trying to fetch notes after cursor");
+		return fetchPageAfter(cursor, size, null, false, this::toNoteTO);
+	}
+
+	/**
+	 * Helper method for keyset pagination, fetches one note more than requested to
+	 * find out if next page exists. Tags filter is only supported for summary
+	 * pages which are fetched with summary fields only
+	 */
+	private <T> NotesPageTO<T> fetchPageAfter(String cursor, int size, List<String> tags, boolean summaryOnly,
+	        Function<Note, T> mapper) {
+		Pageable requestedPage = NoteServiceSupport.keysetPageRequest(size);
+		List<Note> notes;
+		try {
+			if (cursor == null) {
+				if (!summaryOnly) {
+					notes = notesRepo.findPage(requestedPage);
+				} else {
+					notes = tags == null ? notesRepo.findSummaryPage(requestedPage)
+					        : notesRepo.findTaggedSummaryPage(tags, requestedPage);
+				}
+			} else {
+				Object[] position = NoteServiceSupport.keysetPosition(cursor);
+				LocalDateTime createDate = (LocalDateTime) position[0];
+				Object noteID = position[1];
+				if (createDate == null) {
+					if (!summaryOnly) {
+						notes = notesRepo.findUndatedPageAfter(noteID, requestedPage);
+					} else {
+						notes = tags == null ? notesRepo.findUndatedSummaryPageAfter(noteID, requestedPage)
+						        : notesRepo.findTaggedUndatedSummaryPageAfter(tags, noteID, requestedPage);
+					}
+				} else if (!summaryOnly) {
+					notes = notesRepo.findPageAfter(createDate, noteID, requestedPage);
+				} else {
+					notes = tags == null ? notesRepo.findSummaryPageAfter(createDate, noteID, requestedPage)
+					        : notesRepo.findTaggedSummaryPageAfter(tags, createDate, noteID, requestedPage);
+				}
+			}
+		} catch (InputParameterInvalidException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			String errorMsg = "Error occured while fetching notes ";
+			log.error(errorMsg);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
+		if (notes == null || notes.isEmpty()) {
+			log.error("No notes found");
+		}
+		return NoteServiceSupport.keysetPage(notes, size, mapper);
+	}
+
+	/**
+	 * This operation returns notes filtered by tags, with pagination and sorting.
+	 * For ALL tags are ordered rarest first so that most selective tag bounds
+	 * index scan, notes sorted newest first are filtered by inverted index when
+	 * it is loaded
+	 * 
+	 * @param tags      - tags to filter
+	 * @param match     - notes having ANY, ALL or NONE of tags
+	 * @param page      - page number
+	 * @param size      - each page size
+	 * @param sortBy    - createDate or noteTitle
+	 * @param direction - sort direction, descending when null
+	 * @return - notes as per above description
+	 */
+	@Override
+	public List<NoteTO> listNotesFiltered(List<String> tags, TagMatch match, int page, int size, String sortBy,
+	        Sort.Direction direction) throws DataNotFoundException, InputParameterInvalidException {
 		// TODO user tracking in future can be added
-		log.info("User XYZ trying to fetch all notes");
-		Page<Note> allNotes;
+		log.info("User XYZ trying to fetch notes by tags {}", tags);
+		Pageable requestedPage = NoteServiceSupport.tagFilterPageRequest(tags, match, page, size, sortBy, direction);
+		List<String> plannedTags = tagQueryPlanner.plan(tags, match);
+		List<Note> allNotes;
 		try {
-			Query query = new Query();
-			query.addCriteria(Criteria.where("name").in(tags));
-			Pageable requestedPage = PageRequest.of(0, 10);
-			log.info("input : " + tags);
-			allNotes = notesRepo.findAnyOfTheseValues(tags, requestedPage);
+			allNotes = invertedIndex.isReady() && NoteServiceSupport.isNewestFirst(requestedPage)
+			        ? notesRepo.findByNoteIDs(
+			                invertedIndex.match(plannedTags, match, null, requestedPage.getOffset(), size), false)
+			        : notesRepo.findTaggedPage(plannedTags, match, requestedPage);
 		} catch (Exception ex) {
 			String errorMsg = "Error occured while fetching notes ";
 			log.error(errorMsg);
@@ -399,19 +983,40 @@ public class NotesServiceImpl implements NoteService {
 			log.error("No notes found");
 			throw new DataNotFoundException("No notes found");
 		}
-		List<NoteTO> lstNotesTO = allNotes.toList().stream().map(e -> dtoMapper.getMapper().map(e, NoteTO.class))
-				.collect(Collectors.toList());
+		return allNotes.stream()
+		               .map(this::toNoteTO)
+		               .collect(Collectors.toList());
+	}
 
-		return lstNotesTO;
+	/**
+	 * Counts of tags are read from tag counters kept by note writes, totals
+	 * without date range, daily counters of range otherwise
+	 * 
+	 * @param from - first creation day of notes, null for no lower bound
+	 * @param to   - last creation day of notes, null for no upper bound
+	 * @return count of every tag, highest count first
+	 */
+	@Override
+	public Map<String, Long> tagFacets(LocalDate from, LocalDate to)
+	        throws DataNotFoundException, InputParameterInvalidException {
+		log.info("User XYZ trying to fetch tag facets from {} to {}", from, to);
+		NoteServiceSupport.validateDateRange(from, to);
+		try {
+			return tagCountService.facets(from, to);
+		} catch (Exception ex) {
+			String errorMsg = "Error occured while fetching tag counts ";
+			log.error(errorMsg);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
 	}
 
 	@Override
-	public String getNotesText(String noteID) throws DataNotFoundException {
-		log.info("User XYZ trying to search notes" + noteID);
+	public Resource getNotesText(String noteID) throws DataNotFoundException {
+		log.info("User XYZ trying to search note {}", noteID);
 		validateInput(noteID);
 		Optional<Note> optionalNote;
 		try {
-			optionalNote = notesRepo.findByNoteID(noteID);
+			optionalNote = notesCache.findByNoteID(noteID);
 		} catch (Exception ex) {
 			 String errorMsg = new StringBuilder("Error occured while fetching notes")
 			 .append(noteID)
@@ -423,7 +1028,72 @@ public class NotesServiceImpl implements NoteService {
 			throw new DataNotFoundException("Note id " + noteID + " Not found");
 		}
 		Note noteReturned = optionalNote.get();
-		return noteReturned.getNoteText();
+		return textStore.open(noteReturned);
+	}
+
+	/**
+	 * Version is taken from cached note, so that note read from cache is never
+	 * reported as modified, or read with version and dates only
+	 */
+	@Override
+	public NoteVersionTO noteVersion(String noteID) throws DataNotFoundException {
+		validateInput(noteID);
+		Note note = notesCache.cached(noteID);
+		if (note == null) {
+			try {
+				note = notesRepo.findVersionByNoteID(CommonUtils.toDocumentId(noteID))
+				                .orElse(null);
+			} catch (Exception ex) {
+				String errorMsg = "Error occured while fetching version of note " + noteID;
+				log.error(errorMsg);
+				throw new DataNotFoundException(errorMsg, ex);
+			}
+		}
+		if (note == null) {
+			throw new DataNotFoundException("Note id " + noteID + " Not found");
+		}
+		return toNoteVersionTO(noteID, note);
+	}
+
+	@Override
+	public NoteVersionTO cachedNoteVersion(String noteID) {
+		Note note = CommonUtils.isStringNullorEmpty(noteID) ? null : notesCache.cached(noteID);
+		return note == null ? null : toNoteVersionTO(noteID, note);
+	}
+
+	@Override
+	public long notesRevision() {
+		try {
+			return revisionService.current();
+		} catch (Exception ex) {
+			String errorMsg = "Error occured while fetching notes revision ";
+			log.error(errorMsg);
+			throw new DataNotFoundException(errorMsg, ex);
+		}
+	}
+
+	@Override
+	public long lastNotesRevision() {
+		long revision = revisionService.lastRead();
+		return revision < 0 ? notesRevision() : revision;
+	}
+
+	private static NoteVersionTO toNoteVersionTO(String noteID, Note note) {
+		return new NoteVersionTO(noteID, note.getVersion(),
+		        note.getUpdateDate() != null ? note.getUpdateDate() : note.getCreateDate());
+	}
+
+	/**
+	 * Text of note held in file is read into transfer object, so that note is
+	 * returned whole as it is by every JSON path while cached note keeps only
+	 * reference to file
+	 */
+	private NoteTO toNoteTO(Note note) {
+		NoteTO noteTO = dtoMapper.toNoteTO(note);
+		if (note.isTextInFile()) {
+			noteTO.setNoteText(textStore.read(note));
+		}
+		return noteTO;
 	}
 
 }
@@ -0,0 +1,102 @@
+package com.mycomp.notesApp.service;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.utils.CursorTokens;
+
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * Forward only view over a database cursor, maps notes one at a time so memory
+ * stays bounded regardless of collection size. Must be closed once consumed
+ *
+ * @author Rahil
+ *
+ */
+public class NotesStream implements Iterator<NoteTO>, Closeable {
+
+	private final CloseableIterator<Note> cursor;
+	private final Function<Note, NoteTO> mapper;
+	private final int limit;
+	private int emitted;
+	private String lastNoteID;
+	private RuntimeException failure;
+	private Consumer<RuntimeException> closeAction;
+
+	/**
+	 * @param cursor - cursor opened with limit + 1 so that remaining notes can be
+	 *               detected
+	 * @param mapper - entity to transfer object mapping
+	 * @param limit  - max notes to emit, 0 for no limit
+	 */
+	public NotesStream(CloseableIterator<Note> cursor, Function<Note, NoteTO> mapper, int limit) {
+		this.cursor = cursor;
+		this.mapper = mapper;
+		this.limit = limit;
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			return (limit <= 0 || emitted < limit) && cursor.hasNext();
+		} catch (RuntimeException ex) {
+			failure = ex;
+			throw ex;
+		}
+	}
+
+	@Override
+	public NoteTO next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Note note;
+		try {
+			note = cursor.next();
+		} catch (RuntimeException ex) {
+			failure = ex;
+			throw ex;
+		}
+		emitted++;
+		lastNoteID = note.getNoteID();
+		return mapper.apply(note);
+	}
+
+	/**
+	 * @return token to resume listing after last emitted note, null if there are
+	 *         no more notes
+	 */
+	public String getContinuationToken() {
+		if (limit > 0 && emitted >= limit && cursor.hasNext()) {
+			return CursorTokens.encode(lastNoteID);
+		}
+		return null;
+	}
+
+	/**
+	 * @param closeAction - run once stream is closed, with exception cursor threw
+	 *                    while iterated, null if none
+	 * @return this stream
+	 */
+	public NotesStream onClose(Consumer<RuntimeException> closeAction) {
+		this.closeAction = closeAction;
+		return this;
+	}
+
+	@Override
+	public void close() {
+		try {
+			cursor.close();
+		} finally {
+			if (closeAction != null) {
+				closeAction.accept(failure);
+			}
+		}
+	}
+}
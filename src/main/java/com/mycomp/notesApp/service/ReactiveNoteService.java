@@ -0,0 +1,71 @@
+package com.mycomp.notesApp.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.mycomp.notesApp.domain.TagMatch;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesBatchResultTO;
+import com.mycomp.notesApp.to.NotesPageTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non blocking counterpart of {@link NoteService}, errors are signalled with
+ * same exceptions as by {@link NoteService}
+ * 
+ * @author Rahil
+ *
+ */
+public interface ReactiveNoteService {
+	public Mono<NoteTO> createNote(NoteTO inputNote);
+
+	public Mono<NoteTO> updateNote(NoteTO inputNote);
+
+	public Mono<Boolean> deleteNote(String noteID);
+
+	public Mono<NotesBatchResultTO> createNotes(List<NoteTO> inputNotes);
+
+	public Mono<NotesBatchResultTO> updateNotes(List<NoteTO> inputNotes);
+
+	public Mono<NotesBatchResultTO> deleteNotes(List<String> noteIDs);
+
+	public Flux<NoteTO> listNotes();
+
+	/**
+	 * Notes ordered by id followed by continuation token when limit is reached,
+	 * read from database as subscriber requests them
+	 */
+	public Flux<Object> streamNotes(String continuationToken, int limit);
+
+	public Flux<NotesSummaryTO> listNotesSummary(int page, int size, String[] filters);
+
+	public Mono<NotesPageTO<NotesSummaryTO>> listNotesSummaryAfter(String cursor, int size, String[] filters);
+
+	public Flux<NotesSummaryTO> searchNotes(String text, int page, int size);
+
+	public Flux<NotesSummaryTO> matchNotes(String[] tags, TagMatch match, String words, int page, int size);
+
+	public Mono<Map<String, Long>> tagFacets(LocalDate from, LocalDate to);
+
+	public Flux<NoteTO> listNotesFiltered(List<String> tags, TagMatch match, int page, int size, String sortBy,
+	        Sort.Direction direction);
+
+	public Mono<NotesPageTO<NoteTO>> listNotesAfter(String cursor, int size);
+
+	public Mono<NoteTO> searchNote(String noteID);
+
+	public Mono<Map<String, Integer>> statsPerNote(String noteID, int top);
+
+	/**
+	 * @see NoteService#getNotesText(String)
+	 */
+	public Mono<Resource> getNotesText(String noteID);
+
+}
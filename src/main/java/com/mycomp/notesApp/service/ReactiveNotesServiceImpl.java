@@ -0,0 +1,546 @@
+package com.mycomp.notesApp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.NoteStats;
+import com.mycomp.notesApp.domain.TagMatch;
+import com.mycomp.notesApp.exceptions.DataMappingException;
+import com.mycomp.notesApp.exceptions.DataNotFoundException;
+import com.mycomp.notesApp.exceptions.DataNotSavedException;
+import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+import com.mycomp.notesApp.repositories.NoteIndexManager;
+import com.mycomp.notesApp.repositories.NoteInvertedIndex;
+import com.mycomp.notesApp.repositories.NoteTextStore;
+import com.mycomp.notesApp.repositories.NotesCache;
+import com.mycomp.notesApp.repositories.ReactiveNoteStatsRepository;
+import com.mycomp.notesApp.repositories.ReactiveNotesRepository;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesBatchResultTO;
+import com.mycomp.notesApp.to.NotesPageTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+import com.mycomp.notesApp.utils.CommonUtils;
+import com.mycomp.notesApp.utils.CorrelationIds;
+import com.mycomp.notesApp.utils.CursorTokens;
+import com.mycomp.notesApp.utils.DTOMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Notes service implementation for reactive profile. Notes are read and written
+ * with reactive mongo driver so no thread waits on database, steps other than
+ * database access are shared with {@link NotesServiceImpl}
+ *
+ * batch operations are not latency sensitive and are delegated to
+ * {@link NoteService} on bounded elastic scheduler
+ *
+ * operations are deferred with {@link CorrelationIds} so that their log lines
+ * carry correlation id of request
+ *
+ * @author Rahil
+ *
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveNotesServiceImpl implements ReactiveNoteService {
+
+	@Autowired
+	protected DTOMapper dtoMapper;
+
+	@Autowired
+	@Qualifier("RESTInputValidator")
+	protected ValidationService restValidationService;
+
+	@Autowired
+	protected ReactiveNotesRepository notesRepo;
+
+	@Autowired
+	protected ReactiveNoteStatsRepository noteStatsRepo;
+
+	@Autowired
+	protected NotesCache notesCache;
+
+	@Autowired
+	protected NoteStatsService noteStatsService;
+
+	@Autowired
+	protected NoteService noteService;
+
+	@Autowired
+	protected NoteInvertedIndex invertedIndex;
+
+	@Autowired
+	protected TagQueryPlanner tagQueryPlanner;
+
+	@Autowired
+	protected TagCountService tagCountService;
+
+	@Autowired
+	protected NoteTextStore textStore;
+
+	@Autowired
+	protected NotesRevisionService revisionService;
+
+	@Autowired
+	protected NoteIndexManager indexManager;
+
+	/**
+	 * Adds new note with a single insert, title check is left to unique index on
+	 * title unless index is not known to be in place
+	 */
+	@Override
+	public Mono<NoteTO> createNote(NoteTO inputNote) {
+		return CorrelationIds.deferMono(() -> {
+			// TODO User tracking can be added in future
+			log.info("User XYZ trying to add note {}", inputNote.getNoteTitle());
+			restValidationService.validate(inputNote);
+			Note note = dtoMapper.toNote(inputNote);
+			// id is assigned by DB, passed id would turn insert into a duplicate key
+			note.setNoteID(null);
+			note.setCreateDate(LocalDateTime.now());
+			Mono<Note> insert = notesRepo.insert(note)
+			                             .doOnError(ex -> textStore.discard(note))
+			                             .onErrorMap(ex -> writeError(ex, inputNote, "Unable to add note "));
+			return checkTitleFree(inputNote.getNoteTitle(), null).then(insert);
+		})
+		           .transform(write -> storingTextInFile(write, inputNote))
+		           .flatMap(savedNote -> {
+			           notesCache.evict(savedNote.getNoteID());
+			           invertedIndex.put(savedNote);
+			           return countTags(null, savedNote.getTags(), savedNote).flatMap(this::refreshStats);
+		           })
+		           .flatMap(this::toNoteTO);
+	}
+
+	/**
+	 * Modifies note with a single atomic find and modify returning note before
+	 * change, modified note is derived from it
+	 */
+	@Override
+	public Mono<NoteTO> updateNote(NoteTO inputNote) {
+		LocalDateTime updateDate = LocalDateTime.now();
+		return CorrelationIds.deferMono(() -> {
+			log.info("Trying to update note {}", inputNote.getNoteID());
+			restValidationService.validate(inputNote);
+			Note change = new Note();
+			change.setNoteID(inputNote.getNoteID());
+			NoteServiceSupport.prepareNoteToUpdate(change, inputNote, updateDate);
+			Mono<Note> update = notesRepo.findAndUpdate(change)
+			                             .onErrorMap(ex -> writeError(ex, inputNote,
+			                                     "Error occured while modifying note " + inputNote.getNoteID()));
+			return checkTitleFree(inputNote.getNoteTitle(), inputNote.getNoteID()).then(update);
+		})
+		           .transform(write -> storingTextInFile(write, inputNote))
+		           .switchIfEmpty(Mono.error(
+		                   () -> new DataNotFoundException("Note with id : " + inputNote.getNoteID() + " not found")))
+		           .flatMap(savedNote -> {
+			           String previousText = savedNote.getNoteText();
+			           List<String> previousTags = savedNote.getTags();
+			           NoteServiceSupport.prepareNoteToUpdate(savedNote, inputNote, updateDate);
+			           // find and modify returned note before its version was incremented
+			           savedNote.setVersion(savedNote.getVersion() + 1);
+			           notesCache.evict(savedNote.getNoteID());
+			           invertedIndex.put(savedNote);
+			           Mono<Note> counted = countTags(previousTags, savedNote.getTags(), savedNote);
+			           return Objects.equals(previousText, savedNote.getNoteText()) ? counted
+			                   : counted.flatMap(this::refreshStats);
+		           })
+		           .flatMap(this::toNoteTO);
+	}
+
+	@Override
+	public Mono<Boolean> deleteNote(String noteID) {
+		return CorrelationIds.deferMono(() -> {
+			log.info("User XYZ trying to delete note {}", noteID);
+			validateInput(noteID);
+			return notesRepo.findAndDelete(noteID)
+			                .onErrorMap(ex -> new DataNotSavedException("Error occured while deleting notes " + noteID,
+			                        ex));
+		})
+		           .switchIfEmpty(Mono.error(() -> new DataNotFoundException("Note id " + noteID + "Not found")))
+		           .flatMap(removedNote -> {
+			           notesCache.evict(noteID);
+			           invertedIndex.remove(noteID);
+			           Mono<Void> statsRemoved = noteStatsRepo.deleteById(noteID)
+			                                                  .onErrorResume(ex -> {
+				                                                  log.error("Unable to remove statistics of note {}", noteID);
+				                                                  return Mono.empty();
+			                                                  });
+			           return countTags(removedNote.getTags(), null, removedNote).then(statsRemoved);
+		           })
+		           .thenReturn(true);
+	}
+
+	@Override
+	public Mono<NotesBatchResultTO> createNotes(List<NoteTO> inputNotes) {
+		return blocking(() -> noteService.createNotes(inputNotes));
+	}
+
+	@Override
+	public Mono<NotesBatchResultTO> updateNotes(List<NoteTO> inputNotes) {
+		return blocking(() -> noteService.updateNotes(inputNotes));
+	}
+
+	@Override
+	public Mono<NotesBatchResultTO> deleteNotes(List<String> noteIDs) {
+		return blocking(() -> noteService.deleteNotes(noteIDs));
+	}
+
+	@Override
+	public Flux<NoteTO> listNotes() {
+		return CorrelationIds.deferFlux(() -> {
+			log.info("User XYZ trying to fetch all notes");
+			return notFoundIfEmpty(notesRepo.findAll()).concatMap(this::toNoteTO);
+		});
+	}
+
+	/**
+	 * Notes are read from database cursor in batches as subscriber requests them,
+	 * so slow client holds back reading instead of notes piling up in memory
+	 *
+	 * @param continuationToken - token returned by previous stream, null to start
+	 *                          from beginning
+	 * @param limit             - max notes to return, 0 for no limit
+	 */
+	@Override
+	public Flux<Object> streamNotes(String continuationToken, int limit) {
+		return CorrelationIds.deferFlux(() -> {
+			log.info("User XYZ trying to stream notes");
+			if (limit < 0) {
+				throw new InputParameterInvalidException("limit can not be negative", "limit", String.valueOf(limit));
+			}
+			String afterNoteID = continuationToken == null ? null
+			        : CursorTokens.decode(continuationToken, 1, "continuationToken")[0];
+			// one extra note is read to know whether continuation token is needed
+			Flux<Note> notes = notesRepo.streamAfter(afterNoteID, limit > 0 ? limit + 1 : 0)
+			                            .onErrorMap(ex -> readError(ex, "Error occured while fetching notes "));
+			if (limit == 0) {
+				return notes.concatMap(this::toNoteTO);
+			}
+			String[] lastNoteID = new String[1];
+			return notes.index()
+			            .concatMap(indexed -> {
+				            if (indexed.getT1() == limit) {
+					            return Mono.just(Collections.singletonMap("continuationToken",
+					                    CursorTokens.encode(lastNoteID[0])));
+				            }
+				            lastNoteID[0] = indexed.getT2()
+				                                   .getNoteID();
+				            return toNoteTO(indexed.getT2());
+			            });
+		});
+	}
+
+	@Override
+	public Flux<NotesSummaryTO> listNotesSummary(int page, int size, String[] filters) {
+		return CorrelationIds.deferFlux(() -> {
+			log.info("User XYZ trying to fetch all notes");
+			Pageable requestedPage = NoteServiceSupport.newestFirstPageRequest(page, size);
+			Flux<Note> notes = filters == null || filters.length == 0 ? notesRepo.findSummaryPage(requestedPage)
+			        : notesRepo.findTaggedSummaryPage(tagQueryPlanner.plan(Arrays.asList(filters), TagMatch.ALL),
+			                requestedPage);
+			return notFoundIfEmpty(notes);
+		})
+		           .map(dtoMapper::toSummaryTO);
+	}
+
+	/**
+	 * @see NotesServiceImpl#searchNotes(String, int, int)
+	 */
+	@Override
+	public Flux<NotesSummaryTO> searchNotes(String text, int page, int size) {
+		return CorrelationIds.deferFlux(() -> {
+			log.info("User XYZ trying to search notes by text {}", text);
+			Pageable requestedPage = NoteServiceSupport.searchPageRequest(text, page, size);
+			return notFoundIfEmpty(notesRepo.searchSummaryPage(text, requestedPage));
+		})
+		           .map(dtoMapper::toSummaryTO);
+	}
+
+	/**
+	 * Notes are filtered by inverted index or by DB with blocking service
+	 * 
+	 * @see NotesServiceImpl#matchNotes(String[], TagMatch, String, int, int)
+	 */
+	@Override
+	public Flux<NotesSummaryTO> matchNotes(String[] tags, TagMatch match, String words, int page, int size) {
+		return blocking(() -> noteService.matchNotes(tags, match, words, page, size)).flatMapIterable(
+		        notes -> notes);
+	}
+
+	/**
+	 * @see NotesServiceImpl#tagFacets(LocalDate, LocalDate)
+	 */
+	@Override
+	public Mono<Map<String, Long>> tagFacets(LocalDate from, LocalDate to) {
+		return blocking(() -> noteService.tagFacets(from, to));
+	}
+
+	/**
+	 * @see NotesServiceImpl#listNotesFiltered(List, TagMatch, int, int, String,
+	 *      Sort.Direction)
+	 */
+	@Override
+	public Flux<NoteTO> listNotesFiltered(List<String> tags, TagMatch match, int page, int size, String sortBy,
+	        Sort.Direction direction) {
+		return CorrelationIds.deferFlux(() -> {
+			log.info("User XYZ trying to fetch notes by tags {}", tags);
+			Pageable requestedPage = NoteServiceSupport.tagFilterPageRequest(tags, match, page, size, sortBy,
+			        direction);
+			return notFoundIfEmpty(notesRepo.findTaggedPage(tagQueryPlanner.plan(tags, match), match, requestedPage)
+			                                .onErrorMap(ex -> readError(ex, "Error occured while fetching notes ")));
+		})
+		           .concatMap(this::toNoteTO);
+	}
+
+	@Override
+	public Mono<NotesPageTO<NotesSummaryTO>> listNotesSummaryAfter(String cursor, int size, String[] filters) {
+		return CorrelationIds.deferMono(() -> {
+			log.info("User XYZ trying to fetch notes summary after cursor");
+			List<String> tags = filters == null || filters.length == 0 ? null
+			        : tagQueryPlanner.plan(Arrays.asList(filters), TagMatch.ALL);
+			return fetchPageAfter(cursor, size, tags, true, dtoMapper::toSummaryTO);
+		});
+	}
+
+	@Override
+	public Mono<NotesPageTO<NoteTO>> listNotesAfter(String cursor, int size) {
+		return CorrelationIds.deferMono(() -> {
+			log.info("User XYZ trying to fetch notes after cursor");
+			return fetchPageAfter(cursor, size, null, false, Function.identity()).flatMap(
+			        page -> Flux.fromIterable(page.getNotes())
+			                    .concatMap(this::toNoteTO)
+			                    .collectList()
+			                    .map(notes -> new NotesPageTO<>(notes, page.getNextCursor())));
+		});
+	}
+
+	/**
+	 * @see NotesServiceImpl#listNotesAfter(String, int)
+	 */
+	private <T> Mono<NotesPageTO<T>> fetchPageAfter(String cursor, int size, List<String> tags,
+	        boolean summaryOnly, Function<Note, T> mapper) {
+		return Flux.defer(() -> {
+			Pageable requestedPage = NoteServiceSupport.keysetPageRequest(size);
+			if (cursor == null) {
+				if (!summaryOnly) {
+					return notesRepo.findPage(requestedPage);
+				}
+				return tags == null ? notesRepo.findSummaryPage(requestedPage)
+				        : notesRepo.findTaggedSummaryPage(tags, requestedPage);
+			}
+			Object[] position = NoteServiceSupport.keysetPosition(cursor);
+			LocalDateTime createDate = (LocalDateTime) position[0];
+			Object noteID = position[1];
+			if (!summaryOnly) {
+				return notesRepo.findPageAfter(createDate, noteID, requestedPage);
+			}
+			return tags == null ? notesRepo.findSummaryPageAfter(createDate, noteID, requestedPage)
+			        : notesRepo.findTaggedSummaryPageAfter(tags, createDate, noteID, requestedPage);
+		})
+		           .onErrorMap(ex -> readError(ex, "Error occured while fetching notes "))
+		           .collectList()
+		           .map(notes -> NoteServiceSupport.keysetPage(notes, size, mapper));
+	}
+
+	@Override
+	public Mono<NoteTO> searchNote(String noteID) {
+		return CorrelationIds.deferMono(() -> {
+			// TODO User tracking can be added in future
+			log.info("User XYZ trying to search note {}", noteID);
+			return findNote(noteID).flatMap(this::toNoteTO);
+		});
+	}
+
+	/**
+	 * Word statistics of note, statistics missing for notes written before they
+	 * were introduced are computed and saved on first read
+	 */
+	@Override
+	public Mono<Map<String, Integer>> statsPerNote(String noteID, int top) {
+		return CorrelationIds.deferMono(() -> {
+			log.info("User XYZ trying to check statistics of note {}", noteID);
+			validateInput(noteID);
+			if (top < 0) {
+				throw new InputParameterInvalidException("top can not be negative", "top", String.valueOf(top));
+			}
+			int limit = noteStatsService.wordsLimit(top);
+			return noteStatsRepo.findTopWords(CommonUtils.toDocumentId(noteID), limit)
+			                    .onErrorMap(ex -> readError(ex,
+			                            "Error occured while fetching statistics of note " + noteID))
+			                    .switchIfEmpty(Mono.defer(() -> backfillStats(noteID)))
+			                    .map(noteStats -> noteStatsService.toMap(noteStats, limit));
+		});
+	}
+
+	@Override
+	public Mono<Resource> getNotesText(String noteID) {
+		return CorrelationIds.deferMono(() -> {
+			log.info("User XYZ trying to search note {}", noteID);
+			return findNote(noteID).map(textStore::open);
+		});
+	}
+
+	/**
+	 * Looks note up in notes cache shared with blocking service, on miss note is
+	 * loaded without blocking and not cached, as put of a note loaded outside of
+	 * cache could overwrite eviction made by a concurrent write
+	 */
+	private Mono<Note> findNote(String noteID) {
+		return Mono.defer(() -> {
+			validateInput(noteID);
+			Note cached = notesCache.cached(noteID);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+			return notesRepo.findById(noteID)
+			                .onErrorMap(ex -> readError(ex, "Error occured while fetching notes" + noteID));
+		})
+		           .switchIfEmpty(Mono.error(() -> new DataNotFoundException("Note id " + noteID + " Not found")));
+	}
+
+	private Mono<NoteStats> backfillStats(String noteID) {
+		return findNote(noteID).doOnNext(note -> log.info("Computing missing statistics of note {}", noteID))
+		                       .flatMap(this::computeStats)
+		                       .flatMap(noteStats -> noteStatsRepo.save(noteStats)
+		                                                          .onErrorResume(ex -> {
+			                                                          log.error("Unable to save statistics of note {}", noteID);
+			                                                          return Mono.just(noteStats);
+		                                                          }));
+	}
+
+	/**
+	 * Failure is logged so that note write is not reported as failed
+	 */
+	private Mono<Note> refreshStats(Note note) {
+		return computeStats(note).flatMap(noteStatsRepo::save)
+		                         .thenReturn(note)
+		                         .onErrorResume(ex -> {
+			                         log.error("Unable to refresh statistics of note {}", note.getNoteID());
+			                         return Mono.just(note);
+		                         });
+	}
+
+	/**
+	 * Text may be large so statistics are computed off event loop, text held in
+	 * file is read on scheduler meant for blocking calls
+	 */
+	private Mono<NoteStats> computeStats(Note note) {
+		return Mono.fromCallable(() -> noteStatsService.compute(note))
+		           .subscribeOn(note.isTextInFile() ? Schedulers.boundedElastic() : Schedulers.parallel());
+	}
+
+	private void validateInput(String noteID) {
+		if (noteID == null) {
+			throw new InputParameterInvalidException("Note id not passed", "noteID", "null/empty");
+		}
+	}
+
+	/**
+	 * Tag counters and notes revision are written with blocking repositories
+	 */
+	private Mono<Note> countTags(List<String> previousTags, List<String> tags, Note note) {
+		return blocking(() -> {
+			tagCountService.changed(note.getCreateDate(), previousTags, tags);
+			revisionService.changed();
+			return note;
+		});
+	}
+
+	/**
+	 * Text of very large notes is written to file with blocking GridFS template,
+	 * such writes are moved off event loop
+	 */
+	private <T> Mono<T> storingTextInFile(Mono<T> write, NoteTO inputNote) {
+		return textStore.isChunked(inputNote.getNoteText()) ? write.subscribeOn(Schedulers.boundedElastic()) : write;
+	}
+
+	/**
+	 * Text of note held in file is read with blocking GridFS template off event
+	 * loop, so that note is returned whole as it is by every JSON path
+	 */
+	private Mono<NoteTO> toNoteTO(Note note) {
+		if (!note.isTextInFile()) {
+			return Mono.just(dtoMapper.toNoteTO(note));
+		}
+		return blocking(() -> {
+			NoteTO noteTO = dtoMapper.toNoteTO(note);
+			noteTO.setNoteText(textStore.read(note));
+			return noteTO;
+		});
+	}
+
+	private <T> Mono<T> blocking(Callable<T> operation) {
+		return CorrelationIds.fromCallable(operation)
+		           .subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private static <T> Flux<T> notFoundIfEmpty(Flux<T> notes) {
+		return notes.onErrorMap(ex -> readError(ex, "Error occured while fetching notes "))
+		            .switchIfEmpty(Mono.error(() -> new DataNotFoundException("No notes found")));
+	}
+
+	/**
+	 * Title check of single note writes while unique index on title is not known
+	 * to be in place, index otherwise rejects same title as duplicate key
+	 * 
+	 * @param noteID - note being modified, null for new note
+	 */
+	private Mono<Void> checkTitleFree(String title, String noteID) {
+		if (indexManager.isTitleUnique() || CommonUtils.isStringNullorEmpty(title)) {
+			return Mono.empty();
+		}
+		return notesRepo.existsByNoteTitleAndNoteIDNot(title, noteID)
+		                .flatMap(taken -> taken ? Mono.<Void>error(
+		                        new InputParameterInvalidException("note by title already exists", "noteTitle", title))
+		                        : Mono.<Void>empty());
+	}
+
+	private static Throwable writeError(Throwable ex, NoteTO inputNote, String errorMsg) {
+		if (ex instanceof DuplicateKeyException) {
+			log.error("note by title already exists ");
+			return new InputParameterInvalidException("note by title already exists", "noteTitle",
+			        inputNote.getNoteTitle());
+		}
+		if (isAppException(ex)) {
+			return ex;
+		}
+		log.error(errorMsg);
+		return new DataNotSavedException(errorMsg, ex);
+	}
+
+	private static Throwable readError(Throwable ex, String errorMsg) {
+		if (isAppException(ex)) {
+			return ex;
+		}
+		log.error(errorMsg);
+		return new DataNotFoundException(errorMsg, ex);
+	}
+
+	private static boolean isAppException(Throwable ex) {
+		return ex instanceof InputParameterInvalidException || ex instanceof DataNotFoundException
+		        || ex instanceof DataNotSavedException || ex instanceof DataMappingException;
+	}
+
+}
@@ -1,7 +1,19 @@
 package com.mycomp.notesApp.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mycomp.notesApp.errors.ApiValidationError;
 import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.Validatable;
+import com.mycomp.notesApp.utils.CommonUtils;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +26,10 @@ import lombok.extern.slf4j.Slf4j;
  * this demonstrate the benefit of Composition over inheritance existing code
  * doesn't need to be changed for enhancements
  * 
+ * Rule sets are built once per input type and never modified afterwards, every
+ * rule of the set is checked so caller gets all violations at once. Types
+ * without rule set are validated by their own validate method
+ * 
  * @author Rahil
  *
  */
@@ -22,17 +38,70 @@ import lombok.extern.slf4j.Slf4j;
 @Qualifier("RESTInputValidator")
 public class RestInputValidationService extends ValidationService {
 
+	private final Map<Class<?>, List<? extends ValidationRule<?>>> ruleSets;
+
+	@Autowired
+	public RestInputValidationService(TagRegistry tagRegistry) {
+		Map<Class<?>, List<? extends ValidationRule<?>>> sets = new HashMap<>();
+		sets.put(NoteTO.class, noteRules(tagRegistry));
+		ruleSets = Collections.unmodifiableMap(sets);
+	}
+
+	private static List<ValidationRule<NoteTO>> noteRules(TagRegistry tagRegistry) {
+		return Collections.unmodifiableList(Arrays.asList(
+		        ValidationRule.of("NoteTO", "title", NoteTO::getNoteTitle, title -> !CommonUtils.isStringNullorEmpty(title),
+		                "notes title not passed in input"),
+		        ValidationRule.of("NoteTO", "text", NoteTO::getNoteText, text -> !CommonUtils.isStringNullorEmpty(text),
+		                "notes text not passed in input"),
+		        ValidationRule.of("NoteTO", "tags", NoteTO::getTags,
+		                tags -> tags == null || tags.stream()
+		                                            .allMatch(tagRegistry::isValid),
+		                "notes tags are not valid")));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<ApiValidationError> violations(Validatable validatable) {
+		if (validatable == null) {
+			return Collections.singletonList(new ApiValidationError(null, null, null, "input not passed"));
+		}
+		List<ValidationRule<Validatable>> rules = (List<ValidationRule<Validatable>>) ruleSets.get(
+		        validatable.getClass());
+		if (rules == null) {
+			return selfValidate(validatable);
+		}
+		List<ApiValidationError> violations = new ArrayList<>(0);
+		for (ValidationRule<Validatable> rule : rules) {
+			ApiValidationError violation = rule.check(validatable);
+			if (violation != null) {
+				violations.add(violation);
+			}
+		}
+		return violations;
+	}
+
 	@Override
-	public boolean validate() throws InputParameterInvalidException {
-		boolean isValid;
+	public boolean validate(Validatable validatable) throws InputParameterInvalidException {
+		List<ApiValidationError> violations = violations(validatable);
+		if (!violations.isEmpty()) {
+			log.error("Input validation failed");
+			throw new InputParameterInvalidException("Invalid REST input", violations);
+		}
+		return true;
+	}
+
+	private static List<ApiValidationError> selfValidate(Validatable validatable) {
 		try {
-			isValid = this.getValidatableObj()
-			              .validate();
+			validatable.validate();
+			return Collections.emptyList();
+		} catch (InputParameterInvalidException e) {
+			return Collections.singletonList(
+			        new ApiValidationError(e.getObjectName(), e.getFieldName(), e.getFieldValue(), e.getMessage()));
 		} catch (Exception e) {
-			log.error("Input validation failed");
-			throw new InputParameterInvalidException("Invalid REST input", e);
+			return Collections.singletonList(new ApiValidationError(validatable.getClass()
+			                                                                   .getSimpleName(),
+			        null, null, e.getMessage()));
 		}
-		return isValid;
 	}
 
 }
@@ -0,0 +1,203 @@
+package com.mycomp.notesApp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagCount;
+import com.mycomp.notesApp.domain.TagDayCount;
+import com.mycomp.notesApp.repositories.TagCountRepository;
+import com.mycomp.notesApp.repositories.TagDayCountRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service keeps number of notes carrying every tag, in total and per
+ * creation day. Note writes add their change to counter collections with $inc,
+ * so tag counts and facets never aggregate note collection. Totals are also
+ * held in memory and reloaded periodically to pick up writes of other
+ * instances. Counters are initialized from notes when their collection is
+ * empty
+ *
+ * @author Rahil
+ *
+ */
+@Service
+@Slf4j
+public class TagCountService {
+
+	private final TagCountRepository tagCountRepo;
+
+	private final TagDayCountRepository tagDayCountRepo;
+
+	private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+	@Autowired
+	public TagCountService(TagCountRepository tagCountRepo, TagDayCountRepository tagDayCountRepo) {
+		this.tagCountRepo = tagCountRepo;
+		this.tagDayCountRepo = tagDayCountRepo;
+	}
+
+	/**
+	 * @return number of notes with tag as last known, 0 for unknown tag
+	 */
+	public long count(String tag) {
+		return counts.getOrDefault(tag, 0L);
+	}
+
+	/**
+	 * Reads counts of tags from counter collections, totals are used without date
+	 * range, daily counters of range otherwise
+	 *
+	 * @param from - first creation day, null for no lower bound
+	 * @param to   - last creation day, null for no upper bound
+	 * @return count of every tag carried by notes, highest count first
+	 */
+	public Map<String, Long> facets(LocalDate from, LocalDate to) {
+		List<TagCount> tagCounts = from == null && to == null ? tagCountRepo.findAll()
+		        : tagDayCountRepo.sumBetween(from == null ? null : from.toString(),
+		                to == null ? null : to.plusDays(1)
+		                                      .toString());
+		return tagCounts.stream()
+		                .filter(tagCount -> tagCount.getCount() > 0)
+		                .sorted(Comparator.comparingLong(TagCount::getCount)
+		                                  .reversed()
+		                                  .thenComparing(TagCount::getTag))
+		                .collect(Collectors.toMap(TagCount::getTag, TagCount::getCount, Long::sum, LinkedHashMap::new));
+	}
+
+	/**
+	 * Records change of tags of a note, null tags for note added or removed
+	 *
+	 * @param createDate - creation date of note, picks daily counters
+	 */
+	public void changed(LocalDateTime createDate, List<String> previousTags, List<String> tags) {
+		Map<String, Long> deltas = new HashMap<>();
+		Map<String, TagDayCount> dayDeltas = new HashMap<>();
+		addDeltas(deltas, dayDeltas, createDate, previousTags, tags);
+		increment(deltas, dayDeltas.values());
+	}
+
+	/**
+	 * Records change of tags of notes written in batch with single write per
+	 * counter collection, creation date is taken from previous note when present
+	 *
+	 * @param previousNotes - notes before write, null for added notes
+	 * @param notes         - notes after write, null for removed notes
+	 */
+	public void changedAll(List<Note> previousNotes, List<Note> notes) {
+		Map<String, Long> deltas = new HashMap<>();
+		Map<String, TagDayCount> dayDeltas = new HashMap<>();
+		int size = Math.max(previousNotes == null ? 0 : previousNotes.size(), notes == null ? 0 : notes.size());
+		for (int i = 0; i < size; i++) {
+			Note previous = previousNotes == null ? null : previousNotes.get(i);
+			Note note = notes == null ? null : notes.get(i);
+			addDeltas(deltas, dayDeltas, previous != null ? previous.getCreateDate() : note.getCreateDate(),
+			        previous == null ? null : previous.getTags(), note == null ? null : note.getTags());
+		}
+		increment(deltas, dayDeltas.values());
+	}
+
+	/**
+	 * Counts notes of every tag when counters don't exist yet
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void initialize() {
+		try {
+			if (tagCountRepo.count() == 0) {
+				List<TagCount> tagCounts = tagCountRepo.countNoteTags();
+				tagCountRepo.saveAll(tagCounts);
+				log.info("Tag counters initialized for {} tags", tagCounts.size());
+			}
+			if (tagDayCountRepo.count() == 0) {
+				List<TagDayCount> tagDayCounts = tagDayCountRepo.countNoteTagsDaily(ZoneId.systemDefault()
+				                                                                          .getId());
+				tagDayCountRepo.saveAll(tagDayCounts);
+				log.info("Daily tag counters initialized for {} tags and days", tagDayCounts.size());
+			}
+		} catch (Exception ex) {
+			log.error("Unable to initialize tag counters : {}", ex.getMessage());
+		}
+		reload();
+	}
+
+	/**
+	 * Reloads counts from DB, failed reload keeps current counts
+	 */
+	@Scheduled(fixedDelayString = "${notes.tags.reload-interval-ms:60000}")
+	public void reload() {
+		try {
+			tagCountRepo.findAll()
+			            .forEach(tagCount -> counts.put(tagCount.getTag(), tagCount.getCount()));
+		} catch (Exception ex) {
+			log.error("Unable to load tag counters, keeping current ones : {}", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Counter failure is only logged, counts are corrected when counter
+	 * collections are dropped and initialized again
+	 */
+	private void increment(Map<String, Long> deltas, Collection<TagDayCount> dayDeltas) {
+		deltas.values()
+		      .removeIf(delta -> delta == 0);
+		dayDeltas.removeIf(delta -> delta.getCount() == 0);
+		if (deltas.isEmpty() && dayDeltas.isEmpty()) {
+			return;
+		}
+		deltas.forEach((tag, delta) -> counts.merge(tag, delta, Long::sum));
+		try {
+			tagCountRepo.increment(deltas);
+			tagDayCountRepo.increment(dayDeltas);
+		} catch (Exception ex) {
+			log.error("Unable to update counters of tags {} : {}", deltas.keySet(), ex.getMessage());
+		}
+	}
+
+	private static void addDeltas(Map<String, Long> deltas, Map<String, TagDayCount> dayDeltas,
+	        LocalDateTime createDate, List<String> previousTags, List<String> tags) {
+		Set<String> removed = previousTags == null ? new LinkedHashSet<>() : new LinkedHashSet<>(previousTags);
+		Set<String> added = tags == null ? new LinkedHashSet<>() : new LinkedHashSet<>(tags);
+		String day = createDate == null ? null
+		        : createDate.toLocalDate()
+		                    .toString();
+		for (String tag : removed) {
+			if (!added.contains(tag)) {
+				addDelta(deltas, dayDeltas, day, tag, -1);
+			}
+		}
+		for (String tag : added) {
+			if (!removed.contains(tag)) {
+				addDelta(deltas, dayDeltas, day, tag, 1);
+			}
+		}
+	}
+
+	private static void addDelta(Map<String, Long> deltas, Map<String, TagDayCount> dayDeltas, String day, String tag,
+	        long delta) {
+		deltas.merge(tag, delta, Long::sum);
+		if (day != null) {
+			TagDayCount dayDelta = dayDeltas.computeIfAbsent(TagDayCount.id(day, tag),
+			        id -> new TagDayCount(id, tag, day, 0));
+			dayDelta.setCount(dayDelta.getCount() + delta);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.mycomp.notesApp.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import com.mycomp.notesApp.domain.TagMatch;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * This service orders tags of tag filters by number of notes carrying them.
+ * Index bounds of $all are built from its first tag only, so putting the
+ * rarest tag first makes the most selective tag drive the index scan and the
+ * other tags are checked on fewer notes.
+ *
+ * Counts come from {@link TagCountService}, they only order tags so a count
+ * lagging behind doesn't change results
+ *
+ * @author Rahil
+ *
+ */
+@Service
+public class TagQueryPlanner {
+
+	private final TagCountService tagCountService;
+
+	@Autowired
+	public TagQueryPlanner(TagCountService tagCountService) {
+		this.tagCountService = tagCountService;
+	}
+
+	/**
+	 * @param tags  - tags of filter
+	 * @param match - how tags are matched
+	 * @return distinct tags, ordered by count ascending for ALL so that rarest
+	 *         tag comes first
+	 */
+	public List<String> plan(Collection<String> tags, TagMatch match) {
+		List<String> planned = new ArrayList<>(new LinkedHashSet<>(tags));
+		if (match == TagMatch.ALL && planned.size() > 1) {
+			planned.sort(Comparator.comparingLong(tagCountService::count));
+		}
+		return planned;
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.mycomp.notesApp.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mycomp.notesApp.repositories.TagRepository;
+import com.mycomp.notesApp.utils.CommonUtils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service holds tags allowed on notes, configured tags and tags stored in
+ * DB. Tags are kept in an immutable map which is replaced as a whole when
+ * stored tags are reloaded, so lookups need no locking.
+ * 
+ * Map values are canonical instances of tag names, notes read from DB or
+ * written get their tags replaced with them so that notes share tag strings
+ * 
+ * @author Rahil
+ *
+ */
+@Service
+@Slf4j
+public class TagRegistry {
+
+	private final TagRepository tagRepo;
+
+	private final List<String> configuredTags;
+
+	private volatile Map<String, String> tags;
+
+	@Autowired
+	public TagRegistry(TagRepository tagRepo,
+	        @Value("${notes.tags:BUSINESS,PERSONAL,IMPORTANT}") List<String> configuredTags) {
+		this.tagRepo = tagRepo;
+		this.configuredTags = configuredTags;
+		this.tags = build(Collections.emptyMap(), Collections.emptyList());
+	}
+
+	/**
+	 * @return true when tag is allowed on notes
+	 */
+	public boolean isValid(String tag) {
+		return tag != null && tags.containsKey(tag);
+	}
+
+	/**
+	 * @return shared instance of tag, tag itself when it is not known
+	 */
+	public String canonical(String tag) {
+		return tag == null ? null : tags.getOrDefault(tag, tag);
+	}
+
+	/**
+	 * Replaces tags with their shared instances in place
+	 */
+	public void intern(List<String> noteTags) {
+		if (noteTags == null) {
+			return;
+		}
+		Map<String, String> current = tags;
+		noteTags.replaceAll(tag -> tag == null ? null : current.getOrDefault(tag, tag));
+	}
+
+	/**
+	 * Reloads tags stored in DB, runs in background so that startup doesn't wait
+	 * for DB and tags added to DB are picked up without restart. Failed reload
+	 * keeps current tags
+	 */
+	@Scheduled(fixedDelayString = "${notes.tags.reload-interval-ms:60000}")
+	public void reload() {
+		List<String> storedTags = new ArrayList<>();
+		try {
+			tagRepo.findAll()
+			       .forEach(tag -> storedTags.add(tag.getName()));
+		} catch (Exception ex) {
+			log.error("Unable to load tags, keeping current ones : {}", ex.getMessage());
+			return;
+		}
+		Map<String, String> reloaded = build(tags, storedTags);
+		if (!reloaded.keySet()
+		             .equals(tags.keySet())) {
+			log.info("Allowed tags changed to {}", reloaded.keySet());
+		}
+		tags = reloaded;
+	}
+
+	/**
+	 * Builds tag map keeping instances already handed out for known tags
+	 */
+	private Map<String, String> build(Map<String, String> previous, List<String> storedTags) {
+		Map<String, String> built = new HashMap<>();
+		addTags(built, previous, configuredTags);
+		addTags(built, previous, storedTags);
+		return Collections.unmodifiableMap(built);
+	}
+
+	private static void addTags(Map<String, String> built, Map<String, String> previous, List<String> source) {
+		for (String tag : source) {
+			if (!CommonUtils.isStringNullorEmpty(tag)) {
+				String name = tag.trim();
+				built.put(name, previous.getOrDefault(name, name));
+			}
+		}
+	}
+
+}
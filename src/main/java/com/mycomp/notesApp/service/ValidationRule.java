@@ -0,0 +1,41 @@
+package com.mycomp.notesApp.service;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.mycomp.notesApp.errors.ApiValidationError;
+
+/**
+ * Single check of a validation rule set. Rules hold no state so one rule set is
+ * shared by all request threads
+ * 
+ * @author Rahil
+ *
+ */
+@FunctionalInterface
+public interface ValidationRule<T> {
+
+	/**
+	 * @param target - object to check
+	 * @return violation, null when target satisfies this rule
+	 */
+	ApiValidationError check(T target);
+
+	/**
+	 * Rule checking single field of target
+	 * 
+	 * @param object  - name of validated object reported in violation
+	 * @param field   - name of checked field reported in violation
+	 * @param value   - reads checked field from target
+	 * @param valid   - tells if field's value is valid
+	 * @param message - violation message
+	 */
+	static <T, V> ValidationRule<T> of(String object, String field, Function<T, V> value, Predicate<V> valid,
+	        String message) {
+		return target -> {
+			V fieldValue = value.apply(target);
+			return valid.test(fieldValue) ? null : new ApiValidationError(object, field, fieldValue, message);
+		};
+	}
+
+}
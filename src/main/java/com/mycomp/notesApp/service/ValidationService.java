@@ -1,10 +1,11 @@
 package com.mycomp.notesApp.service;
 
+import java.util.List;
+
+import com.mycomp.notesApp.errors.ApiValidationError;
 import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
 import com.mycomp.notesApp.to.Validatable;
 
-import lombok.Data;
-
 /**
  * This is generic class for Validation service it rely on strategy design
  * pattern where at runtime caller can decide specific validation strategy. it
@@ -12,14 +13,25 @@ import lombok.Data;
  * plug any validatable object at runtime and code doesn't need to be touched (
  * hence code is closed for modification but open for extension )
  * 
+ * Implementations are singletons shared by request threads, object to validate
+ * is passed with every call and nothing is kept between calls
+ * 
  * @author Rahil
  *
  */
-@Data
 public abstract class ValidationService {
 
-	private Validatable validatableObj;
+	/**
+	 * @param validatable - object to validate
+	 * @return all violations found, empty when object is valid
+	 */
+	public abstract List<ApiValidationError> violations(Validatable validatable);
 
-	public abstract boolean validate() throws InputParameterInvalidException;
+	/**
+	 * @param validatable - object to validate
+	 * @return true when object is valid
+	 * @throws InputParameterInvalidException carrying all violations found
+	 */
+	public abstract boolean validate(Validatable validatable) throws InputParameterInvalidException;
 
 }
@@ -0,0 +1,30 @@
+package com.mycomp.notesApp.to;
+
+import com.mycomp.notesApp.domain.Status;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single note of batch request
+ * @author Rahil
+ */
+@Data
+@ApiModel(description = "Outcome of a single note of batch request")
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoteBatchItemTO {
+
+	@ApiModelProperty(notes = "Position of note in batch request")
+	private int index;
+
+	@ApiModelProperty(notes = "Notes's id, null when note was not created")
+	private String noteID;
+
+	@ApiModelProperty(notes = "Outcome of the note")
+	private Status status;
+
+}
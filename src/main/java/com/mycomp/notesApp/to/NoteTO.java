@@ -4,12 +4,12 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import javax.validation.constraints.NotEmpty;
 import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
-import com.mycomp.notesApp.utils.CommonUtils;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Notes Transfer object
@@ -35,15 +35,18 @@ public class NoteTO implements Validatable {
 	@ApiModelProperty(notes = "notes's created date")
 	private LocalDateTime updateDate;
 
-	@ApiModelProperty(notes = "Notes's Text")
+	@ApiModelProperty(notes = "Notes's Text, always whole, byte ranges of very large notes can be read from /notes/text/{noteID}")
 	@NotEmpty(message = "Note text can not be empty")
+	@ToString.Exclude
 	private String noteText;
 
 	@ApiModelProperty(notes = "Notes's tags")
 	private ArrayList<String>  tags;
 
 	/**
-	 * more business validations can be added currently just checking for title
+	 * Checks title and text only. Tags allowed change at runtime and are held by
+	 * TagRegistry, they are validated by NoteTO rule set of
+	 * RestInputValidationService
 	 */
 	@Override
 	public boolean validate() throws InputParameterInvalidException {
@@ -55,10 +58,6 @@ public class NoteTO implements Validatable {
 			throw new InputParameterInvalidException("NoteTO", "notes text not passed in input", "text",
 			        "null/empty");
 		}
-		if (tags != null && !tags.stream().allMatch(CommonUtils::hasValidTag)) {
-			throw new InputParameterInvalidException("NoteTO", "notes tags are not valid", "tags",
-			        "null/empty/invalid value");
-		}
 		return true;
 	}
 
@@ -0,0 +1,30 @@
+package com.mycomp.notesApp.to;
+
+import java.time.LocalDateTime;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version of a note, what conditional requests are answered from
+ * @author Rahil
+ */
+@Data
+@ApiModel(description = "Version of a note")
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoteVersionTO {
+
+	@ApiModelProperty(notes = "Notes's id")
+	private String noteID;
+
+	@ApiModelProperty(notes = "Notes's version, incremented on every update")
+	private long version;
+
+	@ApiModelProperty(notes = "Notes's update date, create date when never updated")
+	private LocalDateTime lastModified;
+
+}
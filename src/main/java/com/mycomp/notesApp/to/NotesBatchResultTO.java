@@ -0,0 +1,31 @@
+package com.mycomp.notesApp.to;
+
+import java.util.List;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Report of batch request, notes are processed independently so some of them
+ * may fail while others succeed
+ * @author Rahil
+ */
+@Data
+@ApiModel(description = "Report of batch request with outcome of every note")
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotesBatchResultTO {
+
+	@ApiModelProperty(notes = "Number of notes processed succesfully")
+	private int succeeded;
+
+	@ApiModelProperty(notes = "Number of notes which failed")
+	private int failed;
+
+	@ApiModelProperty(notes = "Outcome of every note in order of request")
+	private List<NoteBatchItemTO> items;
+
+}
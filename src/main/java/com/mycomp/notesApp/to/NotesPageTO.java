@@ -0,0 +1,27 @@
+package com.mycomp.notesApp.to;
+
+import java.util.List;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page of notes fetched with keyset pagination
+ * @author Rahil
+ */
+@Data
+@ApiModel(description = "Page of notes with cursor to fetch next page")
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotesPageTO<T> {
+
+	@ApiModelProperty(notes = "Notes in this page")
+	private List<T> notes;
+
+	@ApiModelProperty(notes = "Cursor to fetch next page, null when this is last page")
+	private String nextCursor;
+
+}
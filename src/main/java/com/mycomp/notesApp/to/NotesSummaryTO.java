@@ -2,6 +2,8 @@ package com.mycomp.notesApp.to;
 
 import java.time.LocalDateTime;
 import javax.validation.constraints.NotEmpty;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.AllArgsConstructor;
@@ -28,6 +30,10 @@ public class NotesSummaryTO{
 
 	@ApiModelProperty(notes = "notes's created date")
 	private LocalDateTime createDate;
+
+	@ApiModelProperty(notes = "relevance of note to searched text, set by search only")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Float score;
 	
 
 }
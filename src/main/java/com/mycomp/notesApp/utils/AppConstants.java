@@ -9,4 +9,13 @@ package com.mycomp.notesApp.utils;
 public interface AppConstants {
 	String EMPTY_STR = "";
 	String SUCCESS_DESCRIPTION = "Request processed succesfully";
+	String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+	String TEXT_MEDIA_TYPE = "text/plain;charset=UTF-8";
+	int TEXT_BUFFER_SIZE = 8192;
+	int STREAM_BATCH_SIZE = 500;
+	String NOTES_CACHE = "notes";
+	String NOTE_EXISTS_CACHE = "noteExists";
+	int MAX_BATCH_SIZE = 1000;
+	int MAX_SEARCH_PAGE_SIZE = 100;
+	int MAX_SEARCH_TEXT_LENGTH = 256;
 }
@@ -1,9 +1,15 @@
 package com.mycomp.notesApp.utils;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.mycomp.notesApp.domain.TAGS;
 
+import org.bson.types.ObjectId;
+
 /**
  * Common Utils to be used across the App
  * 
@@ -11,6 +17,11 @@ import com.mycomp.notesApp.domain.TAGS;
  *
  */
 public class CommonUtils {
+
+	private static final Set<String> TAG_NAMES = Collections.unmodifiableSet(Arrays.stream(TAGS.values())
+	                                                                           .map(TAGS::name)
+	                                                                           .collect(Collectors.toSet()));
+
 	public static boolean isStringNullorEmpty(String inputStr) {
 		return inputStr == null || inputStr.trim()
 		                                   .isEmpty();
@@ -19,11 +30,19 @@ public class CommonUtils {
 		return inputList == null || inputList.isEmpty();
 	}
 
-	public static boolean hasValidTag(String inputTag){
-        for (TAGS tag : TAGS.values()) {
-            if(tag.name().equals(inputTag))
-                return true;
-        }
-        return false;
-    }
+	/**
+	 * Note ids generated by database are stored as ObjectId, range operators are
+	 * not converted by spring data so ids have to be converted before comparison
+	 */
+	public static Object toDocumentId(String noteID) {
+		return ObjectId.isValid(noteID) ? new ObjectId(noteID) : noteID;
+	}
+
+	/**
+	 * Checks tag against built in tags only, tags allowed at runtime are held by
+	 * TagRegistry
+	 */
+	public static boolean hasValidTag(String inputTag) {
+		return inputTag != null && TAG_NAMES.contains(inputTag);
+	}
 }
@@ -0,0 +1,113 @@
+package com.mycomp.notesApp.utils;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Correlation id of request, passed by client in X-Correlation-ID header or
+ * generated, echoed in response and added to every log line of request through
+ * MDC key correlationId.
+ *
+ * MDC is bound to thread, servlet requests keep it for whole request while
+ * reactive requests carry id in reactor context, helpers here put it in MDC
+ * for the part of a reactive operation running on current thread
+ *
+ * @author Rahil
+ *
+ */
+public class CorrelationIds {
+
+	public static final String HEADER = "X-Correlation-ID";
+
+	public static final String MDC_KEY = "correlationId";
+
+	/* ids passed by client end up in every log line, anything else is replaced */
+	private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
+	private CorrelationIds() {
+	}
+
+	/**
+	 * @param header - value of X-Correlation-ID header, may be null
+	 * @return header when it is a safe id, new random id otherwise
+	 */
+	public static String resolve(String header) {
+		if (header != null && VALID_ID.matcher(header)
+		                              .matches()) {
+			return header;
+		}
+		// SecureRandom of UUID.randomUUID is not needed for an id of logs
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return new UUID(random.nextLong(), random.nextLong()).toString();
+	}
+
+	/**
+	 * Mono.defer with correlation id of subscriber context put in MDC while
+	 * supplier runs
+	 */
+	public static <T> Mono<T> deferMono(Supplier<Mono<T>> supplier) {
+		return Mono.deferContextual(context -> withMdc(context, supplier));
+	}
+
+	/**
+	 * Flux.defer with correlation id of subscriber context put in MDC while
+	 * supplier runs
+	 */
+	public static <T> Flux<T> deferFlux(Supplier<Flux<T>> supplier) {
+		return Flux.deferContextual(context -> withMdc(context, supplier));
+	}
+
+	/**
+	 * Mono.fromCallable with correlation id of subscriber context put in MDC of
+	 * thread calling operation
+	 */
+	public static <T> Mono<T> fromCallable(Callable<T> operation) {
+		return Mono.deferContextual(context -> Mono.fromCallable(() -> callWithMdc(context, operation)));
+	}
+
+	private static <T> T withMdc(ContextView context, Supplier<T> supplier) {
+		String correlationId = context.getOrDefault(MDC_KEY, null);
+		if (correlationId == null) {
+			return supplier.get();
+		}
+		String previous = MDC.get(MDC_KEY);
+		MDC.put(MDC_KEY, correlationId);
+		try {
+			return supplier.get();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	private static <T> T callWithMdc(ContextView context, Callable<T> operation) throws Exception {
+		String correlationId = context.getOrDefault(MDC_KEY, null);
+		if (correlationId == null) {
+			return operation.call();
+		}
+		String previous = MDC.get(MDC_KEY);
+		MDC.put(MDC_KEY, correlationId);
+		try {
+			return operation.call();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	private static void restore(String previous) {
+		if (previous == null) {
+			MDC.remove(MDC_KEY);
+		} else {
+			MDC.put(MDC_KEY, previous);
+		}
+	}
+
+}
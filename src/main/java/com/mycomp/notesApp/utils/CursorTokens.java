@@ -0,0 +1,73 @@
+package com.mycomp.notesApp.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+
+/**
+ * Encodes and decodes opaque continuation tokens handed out by resumable
+ * listings. Token content is an implementation detail, clients are expected to
+ * pass it back as is
+ *
+ * @author Rahil
+ *
+ */
+public class CursorTokens {
+
+	private static final String SEPARATOR = "|";
+
+	private static final Pattern SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(SEPARATOR));
+
+	public static String encode(String... parts) {
+		String raw = String.join(SEPARATOR, parts);
+		return Base64.getUrlEncoder()
+		             .withoutPadding()
+		             .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes token produced by {@link #encode(String...)}
+	 *
+	 * @param token         - token passed by client
+	 * @param expectedParts - number of parts token must contain
+	 * @param paramName     - request parameter carrying token, used in error
+	 * @return decoded parts
+	 * @throws InputParameterInvalidException if token is malformed
+	 */
+	public static String[] decode(String token, int expectedParts, String paramName)
+	        throws InputParameterInvalidException {
+		return decode(token, expectedParts, expectedParts, paramName);
+	}
+
+	/**
+	 * Decodes token produced by {@link #encode(String...)} whose number of parts
+	 * may vary
+	 *
+	 * @param minParts - least number of parts token must contain
+	 * @param maxParts - most number of parts token may contain
+	 * @see #decode(String, int, String)
+	 */
+	public static String[] decode(String token, int minParts, int maxParts, String paramName)
+	        throws InputParameterInvalidException {
+		String[] parts;
+		try {
+			String raw = new String(Base64.getUrlDecoder()
+			                              .decode(token),
+			        StandardCharsets.UTF_8);
+			parts = SEPARATOR_PATTERN.split(raw, -1);
+		} catch (IllegalArgumentException ex) {
+			throw new InputParameterInvalidException(paramName + " is not valid", paramName, token);
+		}
+		if (parts.length < minParts || parts.length > maxParts) {
+			throw new InputParameterInvalidException(paramName + " is not valid", paramName, token);
+		}
+		for (String part : parts) {
+			if (CommonUtils.isStringNullorEmpty(part)) {
+				throw new InputParameterInvalidException(paramName + " is not valid", paramName, token);
+			}
+		}
+		return parts;
+	}
+}
@@ -1,12 +1,19 @@
 package com.mycomp.notesApp.utils;
 
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import lombok.Data;
 
 /**
- * This is Util class for Note mapping it uses ModelMapper
+ * This is Util class for Note mapping, note mappings are delegated to
+ * configured {@link NoteMapping} strategy and ModelMapper is available for any
+ * other mapping
  * 
  * @author Rahil
  *
@@ -14,14 +21,37 @@ import lombok.Data;
 @Component
 @Data
 public class DTOMapper  implements InitializingBean{
+
+	public enum Strategy {
+		DIRECT, MODEL_MAPPER;
+	}
+
 	private ModelMapper mapper;
+
+	@Value("${notes.mapping.strategy:DIRECT}")
+	private Strategy strategy = Strategy.DIRECT;
+
+	private NoteMapping noteMapping;
+
 	public DTOMapper() {
 		mapper = new ModelMapper();
 	}
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
-		//TypeMap<Note, NotesSummaryTO> typeMap = getMapper().createTypeMap(Note.class, NotesSummaryTO.class);
-		//typeMap.addMappings(mapper -> mapper.skip(NotesSummaryTO::setNoteID));
+		noteMapping = strategy == Strategy.MODEL_MAPPER ? new ModelMapperNoteMapping(mapper)
+		        : new DirectNoteMapping();
+	}
+
+	public NoteTO toNoteTO(Note note) {
+		return noteMapping.toNoteTO(note);
+	}
+
+	public Note toNote(NoteTO noteTO) {
+		return noteMapping.toNote(noteTO);
+	}
+
+	public NotesSummaryTO toSummaryTO(Note note) {
+		return noteMapping.toSummaryTO(note);
 	}
 }
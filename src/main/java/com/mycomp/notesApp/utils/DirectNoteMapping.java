@@ -0,0 +1,44 @@
+package com.mycomp.notesApp.utils;
+
+import java.util.ArrayList;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+
+/**
+ * Hand written field by field mapping, no reflection or type map lookups are
+ * involved so cost is limited to allocating target object and tags copy
+ * 
+ * @author Rahil
+ *
+ */
+public class DirectNoteMapping implements NoteMapping {
+
+	@Override
+	public NoteTO toNoteTO(Note note) {
+		if (note == null) {
+			return null;
+		}
+		return new NoteTO(note.getNoteID(), note.getNoteTitle(), note.getCreateDate(), note.getUpdateDate(),
+		        note.getNoteText(), note.getTags() == null ? null : new ArrayList<>(note.getTags()));
+	}
+
+	@Override
+	public Note toNote(NoteTO noteTO) {
+		if (noteTO == null) {
+			return null;
+		}
+		return new Note(noteTO.getNoteID(), noteTO.getNoteTitle(), noteTO.getCreateDate(), noteTO.getUpdateDate(),
+		        noteTO.getNoteText(), noteTO.getTags() == null ? null : new ArrayList<>(noteTO.getTags()), null);
+	}
+
+	@Override
+	public NotesSummaryTO toSummaryTO(Note note) {
+		if (note == null) {
+			return null;
+		}
+		return new NotesSummaryTO(note.getNoteID(), note.getNoteTitle(), note.getCreateDate(), note.getScore());
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.mycomp.notesApp.utils;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+
+import org.modelmapper.ModelMapper;
+
+/**
+ * ModelMapper backed mapping, kept as fallback for hand written mapping
+ * 
+ * @author Rahil
+ *
+ */
+public class ModelMapperNoteMapping implements NoteMapping {
+
+	private final ModelMapper mapper;
+
+	public ModelMapperNoteMapping(ModelMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	@Override
+	public NoteTO toNoteTO(Note note) {
+		return note == null ? null : mapper.map(note, NoteTO.class);
+	}
+
+	@Override
+	public Note toNote(NoteTO noteTO) {
+		return noteTO == null ? null : mapper.map(noteTO, Note.class);
+	}
+
+	@Override
+	public NotesSummaryTO toSummaryTO(Note note) {
+		return note == null ? null : mapper.map(note, NotesSummaryTO.class);
+	}
+
+}
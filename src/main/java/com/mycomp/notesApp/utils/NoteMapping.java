@@ -0,0 +1,22 @@
+package com.mycomp.notesApp.utils;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+
+/**
+ * Mapping strategy between note entity and its transfer objects, used by
+ * {@link DTOMapper} so that implementation can be switched by configuration
+ * 
+ * @author Rahil
+ *
+ */
+public interface NoteMapping {
+
+	public NoteTO toNoteTO(Note note);
+
+	public Note toNote(NoteTO noteTO);
+
+	public NotesSummaryTO toSummaryTO(Note note);
+
+}
@@ -0,0 +1,70 @@
+package com.mycomp.notesApp.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.mycomp.notesApp.exceptions.DataMappingException;
+
+/**
+ * Compresses text with Deflate in zlib format, checksum of zlib stream makes
+ * corrupted content fail instead of reading as wrong text
+ *
+ * @author Rahil
+ *
+ */
+public class TextCompression {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * @param text  - text to compress, UTF-8 encoded
+	 * @param level - Deflate level from 1 (fastest) to 9 (smallest)
+	 * @return compressed text
+	 */
+	public static byte[] deflate(String text, int level) {
+		byte[] input = text.getBytes(StandardCharsets.UTF_8);
+		Deflater deflater = new Deflater(level);
+		try {
+			deflater.setInput(input);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!deflater.finished()) {
+				output.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return output.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * @param compressed - text compressed by {@link #deflate(String, int)}
+	 * @return original text
+	 * @throws DataMappingException if content is not valid compressed text
+	 */
+	public static String inflate(byte[] compressed) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 4);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!inflater.finished()) {
+				int inflated = inflater.inflate(buffer);
+				if (inflated == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new DataMappingException("Compressed text is truncated");
+				}
+				output.write(buffer, 0, inflated);
+			}
+			return new String(output.toByteArray(), StandardCharsets.UTF_8);
+		} catch (DataFormatException ex) {
+			throw new DataMappingException("Compressed text is not valid", ex);
+		} finally {
+			inflater.end();
+		}
+	}
+
+}
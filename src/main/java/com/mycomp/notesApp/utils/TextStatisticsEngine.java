@@ -0,0 +1,311 @@
+package com.mycomp.notesApp.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.mycomp.notesApp.domain.WordCount;
+
+/**
+ * Word frequency computation for note's text. Words are runs of letters and
+ * digits so punctuation around words is not counted as part of them.
+ *
+ * Text is scanned char by char, distinct words are copied once into a shared
+ * char buffer and counted in an open addressing table of primitive ints, so
+ * counting doesn't allocate per token. Only the top K words returned become
+ * Strings. Case folding is done per code point. Instances are not thread safe
+ * and are meant to be used for a single text
+ *
+ * @author Rahil
+ *
+ */
+public class TextStatisticsEngine {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private static final boolean[] ASCII_WORD_CHAR = new boolean[128];
+
+	static {
+		for (char c = 0; c < ASCII_WORD_CHAR.length; c++) {
+			ASCII_WORD_CHAR[c] = Character.isLetterOrDigit(c);
+		}
+	}
+
+	private final boolean foldCase;
+
+	/* characters of distinct words, one after another */
+	private char[] words;
+	private int wordsLength;
+
+	/* word being scanned */
+	private char[] token = new char[32];
+	private int tokenLength;
+	private int tokenHash;
+
+	/* distinct words, indexed by entry id */
+	private int[] wordStart;
+	private int[] wordLength;
+	private int[] wordHash;
+	private int[] wordCount;
+	private int size;
+
+	/* open addressing table of entry id + 1, 0 marks free slot */
+	private int[] table;
+
+	private TextStatisticsEngine(boolean foldCase, int textLength) {
+		this.foldCase = foldCase;
+		int expectedWords = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, textLength / 8)));
+		words = new char[Math.max(MIN_CAPACITY, Math.min(textLength, 1 << 16))];
+		wordStart = new int[expectedWords];
+		wordLength = new int[expectedWords];
+		wordHash = new int[expectedWords];
+		wordCount = new int[expectedWords];
+		table = new int[expectedWords * 2];
+	}
+
+	/**
+	 * @param text     - text to analyze
+	 * @param foldCase - count words case insensitively, words are reported lower
+	 *                 cased
+	 * @param maxWords - max words to return
+	 * @return most frequent words ordered by count descending then word
+	 */
+	public static List<WordCount> topWords(CharSequence text, boolean foldCase, int maxWords) {
+		if (text == null || text.length() == 0 || maxWords <= 0) {
+			return new ArrayList<>();
+		}
+		TextStatisticsEngine engine = new TextStatisticsEngine(foldCase, text.length());
+		engine.count(text);
+		return engine.top(maxWords);
+	}
+
+	/**
+	 * @param text     - text to split
+	 * @param foldCase - words are lower cased
+	 * @return distinct words of text in order of their first occurrence
+	 */
+	public static List<String> distinctWords(CharSequence text, boolean foldCase) {
+		if (text == null || text.length() == 0) {
+			return new ArrayList<>();
+		}
+		TextStatisticsEngine engine = new TextStatisticsEngine(foldCase, text.length());
+		engine.count(text);
+		List<String> output = new ArrayList<>(engine.size);
+		for (int entry = 0; entry < engine.size; entry++) {
+			output.add(new String(engine.words, engine.wordStart[entry], engine.wordLength[entry]));
+		}
+		return output;
+	}
+
+	private void count(CharSequence text) {
+		int length = text.length();
+		int i = 0;
+		while (i < length) {
+			char c = text.charAt(i);
+			if (c < ASCII_WORD_CHAR.length) {
+				// most of note text is ascii, checked without code point lookups
+				i++;
+				if (ASCII_WORD_CHAR[c]) {
+					appendToToken(foldCase && c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+				} else if (tokenLength > 0) {
+					addToken();
+				}
+				continue;
+			}
+			int codePoint = Character.codePointAt(text, i);
+			i += Character.charCount(codePoint);
+			if (Character.isLetterOrDigit(codePoint)) {
+				appendToToken(foldCase ? Character.toLowerCase(codePoint) : codePoint);
+			} else if (tokenLength > 0) {
+				addToken();
+			}
+		}
+		if (tokenLength > 0) {
+			addToken();
+		}
+	}
+
+	private void appendToToken(int codePoint) {
+		if (tokenLength + 2 > token.length) {
+			token = Arrays.copyOf(token, token.length * 2);
+		}
+		if (Character.isBmpCodePoint(codePoint)) {
+			token[tokenLength++] = (char) codePoint;
+			tokenHash = 31 * tokenHash + codePoint;
+		} else {
+			Character.toChars(codePoint, token, tokenLength);
+			tokenHash = 31 * (31 * tokenHash + token[tokenLength]) + token[tokenLength + 1];
+			tokenLength += 2;
+		}
+	}
+
+	private void addToken() {
+		int mask = table.length - 1;
+		int slot = spread(tokenHash) & mask;
+		while (table[slot] != 0) {
+			int entry = table[slot] - 1;
+			if (wordHash[entry] == tokenHash && tokenEquals(entry)) {
+				wordCount[entry]++;
+				resetToken();
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		int entry = newEntry();
+		table[slot] = entry + 1;
+		resetToken();
+		if (size * 2 > table.length) {
+			rehash();
+		}
+	}
+
+	private boolean tokenEquals(int entry) {
+		if (wordLength[entry] != tokenLength) {
+			return false;
+		}
+		int start = wordStart[entry];
+		for (int i = 0; i < tokenLength; i++) {
+			if (words[start + i] != token[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int newEntry() {
+		if (size == wordCount.length) {
+			int capacity = size * 2;
+			wordStart = Arrays.copyOf(wordStart, capacity);
+			wordLength = Arrays.copyOf(wordLength, capacity);
+			wordHash = Arrays.copyOf(wordHash, capacity);
+			wordCount = Arrays.copyOf(wordCount, capacity);
+		}
+		if (wordsLength + tokenLength > words.length) {
+			words = Arrays.copyOf(words, Math.max(words.length * 2, wordsLength + tokenLength));
+		}
+		System.arraycopy(token, 0, words, wordsLength, tokenLength);
+		int entry = size++;
+		wordStart[entry] = wordsLength;
+		wordLength[entry] = tokenLength;
+		wordHash[entry] = tokenHash;
+		wordCount[entry] = 1;
+		wordsLength += tokenLength;
+		return entry;
+	}
+
+	private void resetToken() {
+		tokenLength = 0;
+		tokenHash = 0;
+	}
+
+	private void rehash() {
+		int[] newTable = new int[table.length * 2];
+		int mask = newTable.length - 1;
+		for (int entry = 0; entry < size; entry++) {
+			int slot = spread(wordHash[entry]) & mask;
+			while (newTable[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			newTable[slot] = entry + 1;
+		}
+		table = newTable;
+	}
+
+	private static int spread(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Selects top K entries with bounded min heap whose root is the lowest ranked
+	 * word kept so far
+	 */
+	private List<WordCount> top(int k) {
+		int heapCapacity = Math.min(k, size);
+		if (heapCapacity == 0) {
+			return new ArrayList<>();
+		}
+		int[] heap = new int[heapCapacity];
+		int heapSize = 0;
+		for (int entry = 0; entry < size; entry++) {
+			if (heapSize < heapCapacity) {
+				heap[heapSize] = entry;
+				siftUp(heap, heapSize++);
+			} else if (ranksAbove(entry, heap[0])) {
+				heap[0] = entry;
+				siftDown(heap, heapSize);
+			}
+		}
+		WordCount[] result = new WordCount[heapSize];
+		while (heapSize > 0) {
+			int entry = heap[0];
+			heap[0] = heap[--heapSize];
+			siftDown(heap, heapSize);
+			result[heapSize] = new WordCount(new String(words, wordStart[entry], wordLength[entry]),
+			        wordCount[entry]);
+		}
+		List<WordCount> output = new ArrayList<>(result.length);
+		Collections.addAll(output, result);
+		return output;
+	}
+
+	private void siftUp(int[] heap, int index) {
+		int entry = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!ranksAbove(heap[parent], entry)) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = entry;
+	}
+
+	private void siftDown(int[] heap, int heapSize) {
+		if (heapSize == 0) {
+			return;
+		}
+		int index = 0;
+		int entry = heap[0];
+		int half = heapSize >>> 1;
+		while (index < half) {
+			int child = 2 * index + 1;
+			int right = child + 1;
+			if (right < heapSize && ranksAbove(heap[child], heap[right])) {
+				child = right;
+			}
+			if (!ranksAbove(entry, heap[child])) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = entry;
+	}
+
+	/**
+	 * Higher count ranks above, equal counts are ranked by word ascending
+	 */
+	private boolean ranksAbove(int entry, int other) {
+		if (wordCount[entry] != wordCount[other]) {
+			return wordCount[entry] > wordCount[other];
+		}
+		return compareWords(entry, other) < 0;
+	}
+
+	private int compareWords(int entry, int other) {
+		int length = Math.min(wordLength[entry], wordLength[other]);
+		int start = wordStart[entry];
+		int otherStart = wordStart[other];
+		for (int i = 0; i < length; i++) {
+			char c = words[start + i];
+			char otherChar = words[otherStart + i];
+			if (c != otherChar) {
+				return c - otherChar;
+			}
+		}
+		return wordLength[entry] - wordLength[other];
+	}
+}
@@ -0,0 +1,78 @@
+package com.mycomp.notesApp.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs servlet request handling on virtual threads when application runs with
+ * virtual-threads profile, only compiled by jdk21 build profile. Every request
+ * gets its own virtual thread so blocking repository calls of
+ * NotesServiceImpl no longer hold one of a bounded pool of platform threads,
+ * concurrency is then bounded by mongo connection pool which is sized here
+ * 
+ * @author Rahil
+ *
+ */
+@Configuration
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadsConfiguration {
+
+	/**
+	 * Tomcat connector executor, replaces default pool of server.tomcat.threads.max
+	 * platform threads
+	 */
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+		return protocolHandler -> {
+			log.info("Tomcat requests are handled on virtual threads");
+			protocolHandler.setExecutor(virtualThreadsExecutor("http-vt-"));
+		};
+	}
+
+	/**
+	 * Executor of asynchronous requests such as streamed listings, replaces
+	 * auto-configured pool
+	 */
+	@Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	public AsyncTaskExecutor applicationTaskExecutor() {
+		return new TaskExecutorAdapter(virtualThreadsExecutor("task-vt-"));
+	}
+
+	/**
+	 * Requests waiting for a connection are parked virtual threads, so pool is
+	 * sized for database rather than for request threads and waiting is bounded
+	 * to fail fast under overload
+	 */
+	@Bean
+	public MongoClientSettingsBuilderCustomizer virtualThreadsConnectionPoolCustomizer(
+	        @Value("${notes.mongo.pool.max-size:200}") int maxSize,
+	        @Value("${notes.mongo.pool.min-size:20}") int minSize,
+	        @Value("${notes.mongo.pool.max-wait-ms:10000}") long maxWaitMillis) {
+		log.info("Mongo connection pool sized to {} connections for virtual threads", maxSize);
+		return settings -> settings.applyToConnectionPoolSettings(pool -> pool.maxSize(maxSize)
+		                                                                      .minSize(minSize)
+		                                                                      .maxWaitTime(maxWaitMillis,
+		                                                                              TimeUnit.MILLISECONDS));
+	}
+
+	private static ExecutorService virtualThreadsExecutor(String namePrefix) {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+		                                                .name(namePrefix, 0)
+		                                                .factory());
+	}
+
+}
@@ -3,7 +3,7 @@ package com.mycomp.notesApp;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "notes.indexes.mode=OFF")
 class SocialAppApplicationTests {
 
 	@Test
@@ -0,0 +1,74 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+import com.mycomp.notesApp.utils.DirectNoteMapping;
+import com.mycomp.notesApp.utils.ModelMapperNoteMapping;
+import com.mycomp.notesApp.utils.NoteMapping;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares note mapping strategies available behind DTOMapper
+ * 
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DTOMapperBenchmark {
+
+	@Param({ "DIRECT", "MODEL_MAPPER" })
+	public String strategy;
+
+	private NoteMapping mapping;
+	private Note note;
+	private NoteTO noteTO;
+
+	@Setup
+	public void setUp() {
+		mapping = "DIRECT".equals(strategy) ? new DirectNoteMapping() : new ModelMapperNoteMapping(new ModelMapper());
+		List<String> tags = Arrays.asList("BUSINESS", "IMPORTANT");
+		LocalDateTime now = LocalDateTime.now();
+		note = new Note("5fc4fd2b9a3c1e6a2c1f0a11", "quarterly report", now, now, "text of the note", tags, null);
+		noteTO = new NoteTO(null, "quarterly report", null, null, "text of the note", new ArrayList<>(tags));
+	}
+
+	@Benchmark
+	public NoteTO noteToNoteTO() {
+		return mapping.toNoteTO(note);
+	}
+
+	@Benchmark
+	public Note noteTOToNote() {
+		return mapping.toNote(noteTO);
+	}
+
+	@Benchmark
+	public NotesSummaryTO noteToSummaryTO() {
+		return mapping.toSummaryTO(note);
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mycomp.notesApp.to.NoteTO;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures writing a page of 1000 notes, as listNotesPageable returns it, in
+ * each format negotiable with Accept header, as it is and gzipped as tomcat
+ * compresses responses. Bytes sent for the page are reported as pageBytes
+ * counter next to time
+ *
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteEncodingBenchmark {
+
+	@Param({ "json", "xml", "smile", "cbor" })
+	public String format;
+
+	@Param({ "identity", "gzip" })
+	public String encoding;
+
+	@Param({ "100", "1000" })
+	public int textSize;
+
+	private ObjectWriter writer;
+	private List<NoteTO> page;
+
+	@Setup
+	public void setUp() throws IOException {
+		Jackson2ObjectMapperBuilder builder;
+		switch (format) {
+		case "xml":
+			builder = Jackson2ObjectMapperBuilder.xml();
+			break;
+		case "smile":
+			builder = Jackson2ObjectMapperBuilder.smile();
+			break;
+		case "cbor":
+			builder = Jackson2ObjectMapperBuilder.cbor();
+			break;
+		default:
+			builder = Jackson2ObjectMapperBuilder.json();
+		}
+		writer = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+		                .build()
+		                .writerFor(new TypeReference<List<NoteTO>>() {
+		                });
+		Random random = new Random(42);
+		LocalDateTime now = LocalDateTime.now();
+		page = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			StringBuilder text = new StringBuilder();
+			while (text.length() < textSize) {
+				text.append((char) ('a' + random.nextInt(26)));
+				if (random.nextInt(6) == 0) {
+					text.append(' ');
+				}
+			}
+			page.add(new NoteTO(String.format("%024x", i), "note " + i, now, now, text.toString(),
+			        new ArrayList<>(Arrays.asList("BUSINESS", "IMPORTANT"))));
+		}
+	}
+
+	@Benchmark
+	public byte[] write(PageSize size) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		if ("gzip".equals(encoding)) {
+			try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+				writer.writeValue(gzip, page);
+			}
+		} else {
+			writer.writeValue(bytes, page);
+		}
+		byte[] written = bytes.toByteArray();
+		size.pageBytes = written.length;
+		return written;
+	}
+
+	/**
+	 * Size of page last written, same for every write of a trial
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class PageSize {
+
+		public long pageBytes;
+
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagMatch;
+import com.mycomp.notesApp.repositories.NoteInvertedIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures first page of tag and word filters answered by inverted index over
+ * synthetic notes with skewed tags and vocabulary
+ *
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NoteInvertedIndexBenchmark {
+
+	private static final List<String> TAGS = Arrays.asList("BUSINESS", "PERSONAL", "IMPORTANT", "TRAVEL", "HEALTH",
+	        "FINANCE", "FAMILY", "IDEAS");
+
+	private static final int PAGE_SIZE = 20;
+
+	@Param({ "100000", "1000000" })
+	public int notes;
+
+	private NoteInvertedIndex index;
+
+	private String[] vocabulary;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		vocabulary = new String[5000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			vocabulary[i] = "w" + i;
+		}
+		index = new NoteInvertedIndex();
+		index.load(new Iterator<Note>() {
+
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < notes;
+			}
+
+			@Override
+			public Note next() {
+				List<String> tags = new ArrayList<>();
+				for (int i = 0; i < TAGS.size(); i++) {
+					// first tags are the most common ones
+					if (random.nextInt(2 << i) == 0) {
+						tags.add(TAGS.get(i));
+					}
+				}
+				return new Note(String.valueOf(next++), word(random) + " " + word(random), null, null, text(random),
+				        tags, null);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<String> allTags() {
+		return index.match(Arrays.asList("BUSINESS", "PERSONAL"), TagMatch.ALL, null, 0, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<String> anyTag() {
+		return index.match(Arrays.asList("FAMILY", "IDEAS", "HEALTH"), TagMatch.ANY, null, 0, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<String> tagAndWords() {
+		return index.match(Arrays.asList("IMPORTANT"), TagMatch.ALL, "w1 w2", 0, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<String> deepPage() {
+		return index.match(Arrays.asList("BUSINESS"), TagMatch.ALL, null, notes / 4, PAGE_SIZE);
+	}
+
+	private String text(Random random) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 30; i++) {
+			text.append(word(random))
+			    .append(' ');
+		}
+		return text.toString();
+	}
+
+	private String word(Random random) {
+		return vocabulary[(int) (vocabulary.length * Math.pow(random.nextDouble(), 3))];
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mycomp.notesApp.to.NoteTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures Jackson serialization of note listings, mapper is configured as
+ * spring boot configures the one used by controllers
+ *
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteJsonBenchmark {
+
+	@Param({ "20", "1000" })
+	public int notes;
+
+	@Param({ "100", "10000" })
+	public int textSize;
+
+	private ObjectWriter writer;
+	private ObjectReader reader;
+	private List<NoteTO> listing;
+	private byte[] json;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+		                                                       .featuresToDisable(
+		                                                               SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+		                                                       .build();
+		writer = objectMapper.writerFor(new TypeReference<List<NoteTO>>() {
+		});
+		reader = objectMapper.readerFor(new TypeReference<List<NoteTO>>() {
+		});
+		Random random = new Random(42);
+		LocalDateTime now = LocalDateTime.now();
+		listing = new ArrayList<>();
+		for (int i = 0; i < notes; i++) {
+			StringBuilder text = new StringBuilder();
+			while (text.length() < textSize) {
+				text.append((char) ('a' + random.nextInt(26)));
+				if (random.nextInt(6) == 0) {
+					text.append(' ');
+				}
+			}
+			listing.add(new NoteTO(String.format("%024x", i), "note " + i, now, now, text.toString(),
+			        new ArrayList<>(Arrays.asList("BUSINESS", "IMPORTANT"))));
+		}
+		json = writer.writeValueAsBytes(listing);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return writer.writeValueAsBytes(listing);
+	}
+
+	@Benchmark
+	public List<NoteTO> deserialize() throws Exception {
+		return reader.readValue(json);
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.mycomp.notesApp.config.SummarizingAsyncAppender;
+import com.mycomp.notesApp.to.NoteTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Measures time createNote and updateNote of note service spend logging, with
+ * log statements they made when whole notes were concatenated into messages and
+ * with parameterized ones logging note id or title. Events are written to file
+ * with pattern of logback-spring.xml, directly or through async appender.
+ *
+ * Async appender drops INFO events once its queue is mostly full, which a
+ * logging loop reaches quickly, so async results are those of a saturated log
+ *
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteLoggingBenchmark {
+
+	@Param({ "sync", "async" })
+	public String appender;
+
+	@Param({ "100", "10000" })
+	public int textSize;
+
+	private LoggerContext loggerContext;
+	private Logger log;
+	private File logFile;
+	private NoteTO note;
+
+	@Setup
+	public void setUp() throws IOException {
+		logFile = File.createTempFile("notes-logging", ".log");
+		loggerContext = new LoggerContext();
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(loggerContext);
+		encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} - %X{correlationId} - %logger{36} - %msg%n");
+		encoder.start();
+		FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+		fileAppender.setContext(loggerContext);
+		fileAppender.setFile(logFile.getAbsolutePath());
+		fileAppender.setEncoder(encoder);
+		fileAppender.start();
+		Appender<ILoggingEvent> rootAppender = fileAppender;
+		if ("async".equals(appender)) {
+			SummarizingAsyncAppender asyncAppender = new SummarizingAsyncAppender();
+			asyncAppender.setContext(loggerContext);
+			asyncAppender.setQueueSize(8192);
+			asyncAppender.addAppender(fileAppender);
+			asyncAppender.start();
+			rootAppender = asyncAppender;
+		}
+		Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+		root.setLevel(Level.INFO);
+		root.addAppender(rootAppender);
+		log = loggerContext.getLogger(NoteLoggingBenchmark.class);
+		Random random = new Random(42);
+		StringBuilder text = new StringBuilder();
+		while (text.length() < textSize) {
+			text.append((char) ('a' + random.nextInt(26)));
+			if (random.nextInt(6) == 0) {
+				text.append(' ');
+			}
+		}
+		LocalDateTime now = LocalDateTime.now();
+		note = new NoteTO(String.format("%024x", 1), "quarterly report", now, now, text.toString(),
+		        new ArrayList<>(Arrays.asList("BUSINESS", "IMPORTANT")));
+	}
+
+	@TearDown
+	public void tearDown() {
+		loggerContext.stop();
+		logFile.delete();
+	}
+
+	@Benchmark
+	public void createNoteConcatenated() {
+		log.info("User XYZ Trying to add note" + render(note));
+		log.info("input validation passed");
+		log.info("User XYZ Trying to add note" + render(note));
+	}
+
+	@Benchmark
+	public void createNoteParameterized() {
+		log.info("User XYZ trying to add note {}", note.getNoteTitle());
+		log.info("input validation passed");
+	}
+
+	@Benchmark
+	public void updateNoteConcatenated() {
+		log.info("Trying to update note" + render(note));
+		log.info("input validation passed");
+		log.info(new StringBuilder("preparing object to be modified using ").append(render(note))
+		                                                                     .toString());
+		log.info(new StringBuilder("preparing object to be modified using ").append(render(note))
+		                                                                     .toString());
+		log.info("updated note : " + render(note));
+	}
+
+	@Benchmark
+	public void updateNoteParameterized() {
+		log.info("Trying to update note {}", note.getNoteID());
+		log.info("input validation passed");
+		log.debug("preparing note {} to be modified", note.getNoteID());
+		log.debug("preparing note {} to be modified", note.getNoteID());
+		log.info("updated note {}", note.getNoteID());
+	}
+
+	/**
+	 * toString of note as generated before note text was left out of it
+	 */
+	private static String render(NoteTO note) {
+		return "NoteTO(noteID=" + note.getNoteID() + ", noteTitle=" + note.getNoteTitle() + ", createDate="
+		        + note.getCreateDate() + ", updateDate=" + note.getUpdateDate() + ", noteText=" + note.getNoteText()
+		        + ", tags=" + note.getTags() + ")";
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.mycomp.notesApp.utils.TextCompression;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.Binary;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading note documents with plain and Deflate compressed text, from
+ * BSON bytes as returned by DB, and cost of compressing text on write. Stored
+ * size of document read is reported as storedBytes counter next to time
+ *
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class NoteTextCompressionBenchmark {
+
+	private static final DocumentCodec CODEC = new DocumentCodec();
+
+	@Param({ "16384", "262144", "1048576" })
+	public int textSize;
+
+	@Param({ "1", "6" })
+	public int level;
+
+	private String text;
+
+	private byte[] plainDocument;
+
+	private byte[] deflatedDocument;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		String[] vocabulary = new String[20000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			StringBuilder word = new StringBuilder();
+			int length = 2 + random.nextInt(9);
+			for (int j = 0; j < length; j++) {
+				word.append((char) ('a' + random.nextInt(26)));
+			}
+			vocabulary[i] = word.toString();
+		}
+		String[] separators = { " ", " ", " ", ", ", ". ", "\n", "; " };
+		StringBuilder builder = new StringBuilder(textSize + 16);
+		while (builder.length() < textSize) {
+			builder.append(vocabulary[(int) (vocabulary.length * Math.pow(random.nextDouble(), 3))])
+			       .append(separators[random.nextInt(separators.length)]);
+		}
+		text = builder.substring(0, textSize);
+		plainDocument = bson(note().append("noteText", text));
+		deflatedDocument = bson(note().append("noteTextDeflated", new Binary(TextCompression.deflate(text, level))));
+	}
+
+	/**
+	 * Full read of note stored with plain text
+	 */
+	@Benchmark
+	public String readPlain(StoredSize size) {
+		size.storedBytes = plainDocument.length;
+		return decode(plainDocument).getString("noteText");
+	}
+
+	/**
+	 * Full read of note stored compressed, text inflated eagerly
+	 */
+	@Benchmark
+	public String readDeflated(StoredSize size) {
+		size.storedBytes = deflatedDocument.length;
+		return TextCompression.inflate(decode(deflatedDocument).get("noteTextDeflated", Binary.class)
+		                                                        .getData());
+	}
+
+	/**
+	 * Read of note stored compressed when text is never requested, as in lazy
+	 * mode
+	 */
+	@Benchmark
+	public Document readDeflatedLazy(StoredSize size) {
+		size.storedBytes = deflatedDocument.length;
+		return decode(deflatedDocument);
+	}
+
+	@Benchmark
+	public byte[] deflate() {
+		return TextCompression.deflate(text, level);
+	}
+
+	/**
+	 * Size of note document read, same for every read of a trial
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class StoredSize {
+
+		public long storedBytes;
+
+	}
+
+	private static Document note() {
+		return new Document("_id", "5fc4fd2b9a3c1e6a2c1f0a11").append("noteTitle", "quarterly report")
+		                                                      .append("tags", "BUSINESS");
+	}
+
+	private static byte[] bson(Document document) {
+		RawBsonDocument raw = new RawBsonDocument(document, CODEC);
+		byte[] bytes = new byte[raw.getByteBuffer()
+		                           .remaining()];
+		raw.getByteBuffer()
+		   .get(bytes);
+		return bytes;
+	}
+
+	private static Document decode(byte[] bson) {
+		try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+			return CODEC.decode(reader, DecoderContext.builder()
+			                                          .build());
+		}
+	}
+
+}
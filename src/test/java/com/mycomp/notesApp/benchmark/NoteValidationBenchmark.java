@@ -0,0 +1,68 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.mycomp.notesApp.errors.ApiValidationError;
+import com.mycomp.notesApp.service.RestInputValidationService;
+import com.mycomp.notesApp.service.TagRegistry;
+import com.mycomp.notesApp.to.NoteTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares NoteTO's own validate, which checks title and text only, with rule
+ * set of RestInputValidationService which also checks tags, for valid note and
+ * note failing every rule
+ *
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteValidationBenchmark {
+
+	private RestInputValidationService validationService;
+	private NoteTO validNote;
+	private NoteTO invalidNote;
+
+	@Setup
+	public void setUp() {
+		validationService = new RestInputValidationService(
+		        new TagRegistry(null, Arrays.asList("BUSINESS", "PERSONAL", "IMPORTANT")));
+		validNote = new NoteTO(null, "quarterly report", null, null, "text of the note",
+		        new ArrayList<>(Arrays.asList("BUSINESS", "IMPORTANT")));
+		invalidNote = new NoteTO(null, " ", null, null, null, new ArrayList<>(Arrays.asList("BUSINESS", "NOPE")));
+	}
+
+	@Benchmark
+	public boolean noteTOValidate() {
+		return validNote.validate();
+	}
+
+	@Benchmark
+	public boolean ruleSetValidate() {
+		return validationService.validate(validNote);
+	}
+
+	@Benchmark
+	public List<ApiValidationError> ruleSetViolations() {
+		return validationService.violations(invalidNote);
+	}
+
+}
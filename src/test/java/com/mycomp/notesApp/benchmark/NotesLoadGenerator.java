@@ -0,0 +1,196 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Closed loop load generator for notes API, used to compare servlet stack with
+ * reactive and virtual-threads profiles. Every client repeatedly reads a random
+ * note by id or first summary page and waits for response before sending next
+ * request, throughput and latency percentiles of every number of clients are
+ * written as JSON to result file, target/load-result.json by default
+ *
+ * run against application started with and without reactive or
+ * virtual-threads profile, e.g. with {@link NotesLoadServer} :
+ * NotesLoadGenerator [baseUrl] [clients, comma separated] [seconds] [notes]
+ * [result file]
+ *
+ * @author Rahil
+ *
+ */
+public class NotesLoadGenerator {
+
+	private final WebClient client;
+
+	private final int clients;
+
+	private final Duration duration;
+
+	private final List<String> noteIDs = new ArrayList<>();
+
+	private final AtomicLong errors = new AtomicLong();
+
+	public NotesLoadGenerator(String baseUrl, int clients, Duration duration) {
+		ConnectionProvider connections = ConnectionProvider.builder("notes-load")
+		                                                   .maxConnections(clients)
+		                                                   .pendingAcquireMaxCount(-1)
+		                                                   .build();
+		this.client = WebClient.builder()
+		                       .baseUrl(baseUrl + "/api/v1")
+		                       .clientConnector(new ReactorClientHttpConnector(
+		                               HttpClient.create(connections)))
+		                       .build();
+		this.clients = clients;
+		this.duration = duration;
+	}
+
+	public static void main(String[] args) throws IOException {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		String[] clients = (args.length > 1 ? args[1] : "256").split(",");
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+		int notes = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+		File resultFile = new File(args.length > 4 ? args[4] : "target/load-result.json");
+		List<String> noteIDs = null;
+		List<Map<String, Object>> results = new ArrayList<>();
+		for (String count : clients) {
+			NotesLoadGenerator generator = new NotesLoadGenerator(baseUrl, Integer.parseInt(count.trim()),
+			        Duration.ofSeconds(seconds));
+			if (noteIDs == null) {
+				generator.seed(notes);
+				noteIDs = generator.noteIDs;
+			} else {
+				generator.noteIDs.addAll(noteIDs);
+			}
+			results.add(generator.run());
+		}
+		new ObjectMapper().writerWithDefaultPrettyPrinter()
+		                  .writeValue(resultFile, results);
+	}
+
+	/**
+	 * Adds notes read during the run with batch endpoint
+	 */
+	public void seed(int notes) {
+		String prefix = "load-" + System.currentTimeMillis() + "-";
+		for (int from = 0; from < notes; from += 1000) {
+			List<Map<String, Object>> batch = IntStream.range(from, Math.min(notes, from + 1000))
+			                                           .mapToObj(i -> note(prefix + i))
+			                                           .collect(Collectors.toList());
+			JsonNode result = client.post()
+			                        .uri("/notes/batch")
+			                        .contentType(MediaType.APPLICATION_JSON)
+			                        .bodyValue(batch)
+			                        .retrieve()
+			                        .bodyToMono(JsonNode.class)
+			                        .block();
+			result.get("items")
+			      .forEach(item -> {
+				      if ("SUCCESS".equals(item.path("status")
+				                               .path("statusCode")
+				                               .asText())) {
+					      noteIDs.add(item.get("noteID")
+					                      .asText());
+				      }
+			      });
+		}
+		if (noteIDs.isEmpty()) {
+			throw new IllegalStateException("No notes could be added");
+		}
+	}
+
+	/**
+	 * Runs clients for configured duration after warm up of a tenth of it
+	 *
+	 * @return request count, throughput in requests per second and latency
+	 *         percentiles in millis
+	 */
+	public Map<String, Object> run() {
+		load(duration.dividedBy(10));
+		errors.set(0);
+		long start = System.nanoTime();
+		long[] latencies = load(duration);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		Arrays.sort(latencies);
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("clients", clients);
+		result.put("requests", latencies.length);
+		result.put("errors", errors.get());
+		result.put("throughput", latencies.length / seconds);
+		result.put("p50", percentile(latencies, 50));
+		result.put("p90", percentile(latencies, 90));
+		result.put("p99", percentile(latencies, 99));
+		result.put("max", percentile(latencies, 100));
+		return result;
+	}
+
+	private long[] load(Duration period) {
+		long deadline = System.nanoTime() + period.toNanos();
+		return Flux.range(0, clients)
+		           .flatMap(c -> Mono.defer(this::request)
+		                             .repeat(() -> System.nanoTime() < deadline), clients)
+		           .collectList()
+		           .map(list -> list.stream()
+		                            .mapToLong(Long::longValue)
+		                            .toArray())
+		           .block();
+	}
+
+	/**
+	 * @return latency of request in nanos
+	 */
+	private Mono<Long> request() {
+		long start = System.nanoTime();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String uri = random.nextInt(10) == 0 ? "/notes/summary?page=0&size=20"
+		        : "/notes/" + noteIDs.get(random.nextInt(noteIDs.size()));
+		return client.get()
+		             .uri(uri)
+		             .retrieve()
+		             .toBodilessEntity()
+		             .map(response -> System.nanoTime() - start)
+		             .onErrorResume(ex -> {
+			             errors.incrementAndGet();
+			             return Mono.just(System.nanoTime() - start);
+		             });
+	}
+
+	private static Map<String, Object> note(String title) {
+		Map<String, Object> note = new HashMap<>();
+		note.put("noteTitle", title);
+		note.put("noteText", "load generated note " + title + " with some words to count");
+		note.put("tags", Arrays.asList("BUSINESS"));
+		return note;
+	}
+
+	private static double percentile(long[] sorted, int percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1e6;
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.mycomp.notesApp.NotesApplication;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Starts notes application against in memory mongo server, target of
+ * {@link NotesLoadGenerator} when no mongo instance is at hand. Arguments are
+ * passed to application, e.g. --spring.profiles.active=virtual-threads
+ *
+ * run from test classpath : NotesLoadServer [application arguments]
+ *
+ * @author Rahil
+ *
+ */
+public class NotesLoadServer {
+
+	public static void main(String[] args) {
+		// devtools would restart application in another thread and start mongo server again
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		MongoServer mongoServer = new MongoServer(new MemoryBackend());
+		InetSocketAddress address = mongoServer.bind();
+		Runtime.getRuntime()
+		       .addShutdownHook(new Thread(mongoServer::shutdown));
+		// command line arguments take precedence over application.properties
+		List<String> arguments = new ArrayList<>(Arrays.asList("--spring.data.mongodb.host=localhost",
+		        "--spring.data.mongodb.port=" + address.getPort(), "--logging.level.de.bwaldvogel=OFF"));
+		arguments.addAll(Arrays.asList(args));
+		new SpringApplicationBuilder(NotesApplication.class).run(arguments.toArray(new String[0]));
+	}
+
+}
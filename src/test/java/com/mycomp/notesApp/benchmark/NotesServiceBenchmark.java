@@ -0,0 +1,140 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.mycomp.notesApp.NotesApplication;
+import com.mycomp.notesApp.exceptions.DataNotSavedException;
+import com.mycomp.notesApp.service.NoteService;
+import com.mycomp.notesApp.to.NoteTO;
+import com.mycomp.notesApp.to.NotesBatchResultTO;
+import com.mycomp.notesApp.to.NotesSummaryTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Measures note service end to end, from transfer objects to DB and back,
+ * against in memory mongo server so that mapping, validation, caching and
+ * driver overhead are measured without network or disk. Reads are measured
+ * with and without notes cache
+ *
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// devtools would restart application in another thread, mongo driver threads
+// left running by closed context are not waited for
+@Fork(value = 1, jvmArgsAppend = { "-Xmx1g", "-Dspring.devtools.restart.enabled=false", "-Djmh.shutdownTimeout=0" })
+public class NotesServiceBenchmark {
+
+	private static final int NOTES = 1000;
+
+	private static final int PAGE_SIZE = 20;
+
+	@Param({ "caffeine", "none" })
+	public String cache;
+
+	private MongoServer mongoServer;
+	private ConfigurableApplicationContext context;
+	private NoteService notesService;
+	private List<NoteTO> notes;
+
+	@Setup
+	public void setUp() throws DataNotSavedException {
+		mongoServer = new MongoServer(new MemoryBackend());
+		InetSocketAddress address = mongoServer.bind();
+		// command line arguments take precedence over application.properties
+		context = new SpringApplicationBuilder(NotesApplication.class).web(WebApplicationType.NONE)
+		                                                              .logStartupInfo(false)
+		                                                              .run("--spring.data.mongodb.host=localhost",
+		                                                                      "--spring.data.mongodb.port="
+		                                                                              + address.getPort(),
+		                                                                      "--spring.cache.type=" + cache,
+		                                                                      "--spring.main.banner-mode=off",
+		                                                                      "--logging.level.root=WARN",
+		                                                                      "--logging.level.de.bwaldvogel=OFF");
+		notesService = context.getBean(NoteService.class);
+		Random random = new Random(42);
+		List<NoteTO> input = new ArrayList<>();
+		for (int i = 0; i < NOTES; i++) {
+			StringBuilder text = new StringBuilder();
+			for (int j = 0; j < 200; j++) {
+				text.append("w")
+				    .append((int) (500 * Math.pow(random.nextDouble(), 3)))
+				    .append(' ');
+			}
+			input.add(new NoteTO(null, "note " + i, null, null, text.toString(),
+			        new ArrayList<>(Arrays.asList(i % 2 == 0 ? "BUSINESS" : "PERSONAL"))));
+		}
+		NotesBatchResultTO created = notesService.createNotes(input);
+		notes = new ArrayList<>();
+		created.getItems()
+		       .forEach(item -> notes.add(notesService.searchNote(item.getNoteID())));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+		mongoServer.shutdown();
+	}
+
+	@Benchmark
+	public NoteTO searchNote() {
+		return notesService.searchNote(randomNote().getNoteID());
+	}
+
+	@Benchmark
+	public Map<String, Integer> statsPerNote() {
+		return notesService.statsPerNote(randomNote().getNoteID());
+	}
+
+	@Benchmark
+	public List<NoteTO> listNotesPageable() {
+		return notesService.listNotesPageable(0, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<NotesSummaryTO> listNotesSummary() {
+		return notesService.listNotesSummary(0, PAGE_SIZE, null);
+	}
+
+	@Benchmark
+	public NoteTO updateNote() throws DataNotSavedException {
+		NoteTO note = randomNote();
+		return notesService.updateNote(new NoteTO(note.getNoteID(), note.getNoteTitle(), null, null,
+		        note.getNoteText(), note.getTags()));
+	}
+
+	private NoteTO randomNote() {
+		return notes.get(ThreadLocalRandom.current()
+		                                  .nextInt(notes.size()));
+	}
+
+}
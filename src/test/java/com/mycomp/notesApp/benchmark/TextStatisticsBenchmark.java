@@ -0,0 +1,88 @@
+package com.mycomp.notesApp.benchmark;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.mycomp.notesApp.domain.WordCount;
+import com.mycomp.notesApp.utils.TextStatisticsEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares word statistics engine with split based counting previously done
+ * in statsPerNote, for 1KB, 100KB and 10MB notes
+ * 
+ * @author Rahil
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class TextStatisticsBenchmark {
+
+	private static final int TOP_WORDS = 1000;
+
+	@Param({ "1024", "102400", "10485760" })
+	public int textSize;
+
+	private String text;
+
+	@Setup
+	public void setUp() {
+		// skewed vocabulary with punctuation and mixed case, as in typed notes
+		Random random = new Random(42);
+		String[] vocabulary = new String[20000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			StringBuilder word = new StringBuilder();
+			int length = 2 + random.nextInt(9);
+			for (int j = 0; j < length; j++) {
+				word.append((char) ('a' + random.nextInt(26)));
+			}
+			vocabulary[i] = word.toString();
+		}
+		String[] separators = { " ", " ", " ", ", ", ". ", "\n", "; " };
+		StringBuilder builder = new StringBuilder(textSize + 16);
+		while (builder.length() < textSize) {
+			String word = vocabulary[(int) (vocabulary.length * Math.pow(random.nextDouble(), 3))];
+			builder.append(random.nextInt(10) == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word)
+			       .append(separators[random.nextInt(separators.length)]);
+		}
+		text = builder.substring(0, textSize);
+	}
+
+	@Benchmark
+	public List<WordCount> engine() {
+		return TextStatisticsEngine.topWords(text, true, TOP_WORDS);
+	}
+
+	@Benchmark
+	public Map<String, Integer> split() {
+		Map<String, Integer> output = new HashMap<String, Integer>();
+		for (String word : text.split(" ")) {
+			output.put(word, output.getOrDefault(word, 0) + 1);
+		}
+		return output.entrySet()
+		             .stream()
+		             .sorted(Collections.reverseOrder(Map.Entry.comparingByValue()))
+		             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+	}
+
+}
@@ -0,0 +1,198 @@
+package com.mycomp.notesApp.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycomp.notesApp.to.NoteTO;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Notes API against in memory mongo server, text of notes above 1024 chars is
+ * held in GridFS
+ */
+@SpringBootTest(properties = { "notes.text.chunked.enabled=true", "notes.text.chunked.min-length=1024" })
+@AutoConfigureMockMvc
+class NotesControllerTest {
+
+	private static final MongoServer MONGO_SERVER = new MongoServer(new MemoryBackend());
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@DynamicPropertySource
+	static void mongo(DynamicPropertyRegistry registry) {
+		InetSocketAddress address = MONGO_SERVER.bind();
+		registry.add("spring.data.mongodb.host", address::getHostString);
+		registry.add("spring.data.mongodb.port", address::getPort);
+	}
+
+	@AfterAll
+	static void stopMongo() {
+		MONGO_SERVER.shutdown();
+	}
+
+	@Test
+	void returnsWholeTextOfNoteHeldInFile() throws Exception {
+		String text = words(2000);
+		NoteTO created = read(mvc.perform(post("/api/v1/notes").contentType(MediaType.APPLICATION_JSON)
+		                                                         .content(objectMapper.writeValueAsString(
+		                                                                 note("chunked note", text))))
+		                         .andExpect(status().isOk()));
+		Document stored = mongoTemplate.getCollection("note")
+		                               .find(new Document("_id", new ObjectId(created.getNoteID())))
+		                               .first();
+		assertNotNull(stored.get("noteTextFileID"));
+		assertFalse(stored.containsKey("noteText"));
+
+		NoteTO found = read(mvc.perform(get("/api/v1/notes/" + created.getNoteID()))
+		                       .andExpect(status().isOk()));
+		assertEquals(text, found.getNoteText());
+
+		// note read is written back as it is, with its text changed
+		found.setNoteText(text + " appended");
+		mvc.perform(put("/api/v1/notes/" + found.getNoteID()).contentType(MediaType.APPLICATION_JSON)
+		                                                     .content(objectMapper.writeValueAsString(found)))
+		   .andExpect(status().isOk())
+		   .andExpect(jsonPath("$.noteText").value(text + " appended"));
+		mvc.perform(get("/api/v1/notes/keyset"))
+		   .andExpect(status().isOk())
+		   .andExpect(jsonPath("$.notes[0].noteID").value(found.getNoteID()))
+		   .andExpect(jsonPath("$.notes[0].noteText").value(text + " appended"));
+	}
+
+	@Test
+	void computesStatisticsOfNoteHeldInFile() throws Exception {
+		NoteTO created = read(mvc.perform(post("/api/v1/notes").contentType(MediaType.APPLICATION_JSON)
+		                                                         .content(objectMapper.writeValueAsString(
+		                                                                 note("chunked stats", words(2000) + common(30)))))
+		                         .andExpect(status().isOk()));
+		// statistics missing in DB are computed from text read from file
+		mongoTemplate.getCollection("noteStats")
+		             .deleteMany(new Document());
+		mvc.perform(get("/api/v1/notes/stats/" + created.getNoteID()).param("top", "1"))
+		   .andExpect(status().isOk())
+		   .andExpect(jsonPath("$.common").value(30));
+	}
+
+	@Test
+	void answersConditionalRequestsWithStrongETags() throws Exception {
+		NoteTO created = read(mvc.perform(post("/api/v1/notes").contentType(MediaType.APPLICATION_JSON)
+		                                                         .content(objectMapper.writeValueAsString(
+		                                                                 note("conditional note", "text"))))
+		                         .andExpect(status().isOk()));
+		String url = "/api/v1/notes/" + created.getNoteID();
+		// version is not looked up for request without validators, note is not cached yet
+		mvc.perform(get(url))
+		   .andExpect(status().isOk())
+		   .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+		String eTag = mvc.perform(get(url))
+		                 .andExpect(status().isOk())
+		                 .andReturn()
+		                 .getResponse()
+		                 .getHeader(HttpHeaders.ETAG);
+		assertTrue(eTag.startsWith("\""));
+		mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+		   .andExpect(status().isNotModified());
+		mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag)
+		                    .accept(MediaType.APPLICATION_XML))
+		   .andExpect(status().isOk());
+
+		String listingETag = mvc.perform(get("/api/v1/notes"))
+		                        .andExpect(status().isOk())
+		                        .andReturn()
+		                        .getResponse()
+		                        .getHeader(HttpHeaders.ETAG);
+		assertTrue(listingETag.startsWith("\""));
+		mvc.perform(get("/api/v1/notes").header(HttpHeaders.IF_NONE_MATCH, listingETag))
+		   .andExpect(status().isNotModified());
+
+		created.setNoteText("changed text");
+		mvc.perform(put(url).header(HttpHeaders.IF_MATCH, "W/" + eTag)
+		                    .contentType(MediaType.APPLICATION_JSON)
+		                    .content(objectMapper.writeValueAsString(created)))
+		   .andExpect(status().isPreconditionFailed());
+		mvc.perform(put(url).header(HttpHeaders.IF_MATCH, eTag)
+		                    .contentType(MediaType.APPLICATION_JSON)
+		                    .content(objectMapper.writeValueAsString(created)))
+		   .andExpect(status().isOk());
+		mvc.perform(get("/api/v1/notes").header(HttpHeaders.IF_NONE_MATCH, listingETag))
+		   .andExpect(status().isOk());
+	}
+
+	@Test
+	void rejectsInvalidSummaryPage() throws Exception {
+		mvc.perform(get("/api/v1/notes/summary").param("page", "-1")
+		                                        .param("size", "20"))
+		   .andExpect(status().isBadRequest());
+		mvc.perform(get("/api/v1/notes/summary").param("page", "0")
+		                                        .param("size", "0"))
+		   .andExpect(status().isBadRequest());
+	}
+
+	private NoteTO read(ResultActions result) throws Exception {
+		return objectMapper.readValue(result.andReturn()
+		                                    .getResponse()
+		                                    .getContentAsString(),
+		        NoteTO.class);
+	}
+
+	private static NoteTO note(String title, String text) {
+		return new NoteTO(null, title, null, null, text, new ArrayList<>(Arrays.asList("BUSINESS")));
+	}
+
+	private static String common(int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			text.append(" common");
+		}
+		return text.toString();
+	}
+
+	private static String words(int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			text.append("word")
+			    .append(i % 97)
+			    .append(' ');
+		}
+		return text.toString()
+		           .trim();
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.mycomp.notesApp.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+class NoteIndexManagerTest {
+
+	private MongoServer mongoServer;
+
+	private MongoClient mongoClient;
+
+	private NoteIndexManager indexManager;
+
+	@BeforeEach
+	void setUp() {
+		mongoServer = new MongoServer(new MemoryBackend());
+		InetSocketAddress address = mongoServer.bind();
+		mongoClient = MongoClients.create("mongodb://localhost:" + address.getPort());
+		indexManager = new NoteIndexManager();
+		indexManager.mongoTemplate = new MongoTemplate(mongoClient, "notes");
+		indexManager.mappingContext = new MongoMappingContext();
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongoClient.close();
+		mongoServer.shutdown();
+	}
+
+	@Test
+	void failsStartupWithoutUniqueTitleIndexWhateverTheMode() {
+		indexManager.mode = NoteIndexManager.Mode.OFF;
+		assertThrows(IllegalStateException.class, indexManager::afterPropertiesSet);
+		assertFalse(indexManager.isTitleUnique());
+	}
+
+	@Test
+	void createsUniqueTitleIndex() throws Exception {
+		// explain and text index are not supported by in memory server, WARN only logs them
+		indexManager.mode = NoteIndexManager.Mode.WARN;
+		indexManager.afterPropertiesSet();
+		assertTrue(indexManager.isTitleUnique());
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.mycomp.notesApp.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.mycomp.notesApp.domain.Note;
+import com.mycomp.notesApp.domain.TagMatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NoteInvertedIndexTest {
+
+	private NoteInvertedIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new NoteInvertedIndex();
+		index.enabled = true;
+		index.load(Arrays.asList(note("1", "Quarterly plan", "Budget review, hiring", "BUSINESS", "IMPORTANT"),
+		        note("2", "Groceries", "milk, bread", "PERSONAL"),
+		        note("3", "Team offsite", "plan the budget", "BUSINESS"))
+		                 .iterator());
+	}
+
+	@Test
+	void matchesAllAnyOrNoneOfTagsNewestFirst() {
+		assertTrue(index.isReady());
+		assertEquals(Arrays.asList("3", "1"), index.match(tags("BUSINESS"), TagMatch.ALL, null, 0, 10));
+		assertEquals(Collections.singletonList("1"),
+		        index.match(tags("BUSINESS", "IMPORTANT"), TagMatch.ALL, null, 0, 10));
+		assertEquals(Arrays.asList("2", "1"), index.match(tags("PERSONAL", "IMPORTANT"), TagMatch.ANY, null, 0, 10));
+		assertTrue(index.match(tags("BUSINESS", "UNKNOWN"), TagMatch.ALL, null, 0, 10)
+		                .isEmpty());
+		assertEquals(Arrays.asList("3", "2", "1"), index.match(null, TagMatch.ALL, null, 0, 10));
+		assertEquals(Collections.singletonList("2"),
+		        index.match(tags("BUSINESS", "UNKNOWN"), TagMatch.NONE, null, 0, 10));
+		assertEquals(Collections.singletonList("3"),
+		        index.match(tags("PERSONAL", "IMPORTANT"), TagMatch.NONE, "plan", 0, 10));
+	}
+
+	@Test
+	void matchesAllWordsOfTitleAndText() {
+		assertEquals(Arrays.asList("3", "1"), index.match(null, TagMatch.ALL, "PLAN budget", 0, 10));
+		assertEquals(Collections.singletonList("1"), index.match(tags("IMPORTANT"), TagMatch.ALL, "plan", 0, 10));
+		assertTrue(index.match(null, TagMatch.ALL, "plan milk", 0, 10)
+		                .isEmpty());
+	}
+
+	@Test
+	void pagesMatchingNotes() {
+		assertEquals(Collections.singletonList("2"), index.match(null, TagMatch.ALL, null, 1, 1));
+		assertTrue(index.match(null, TagMatch.ALL, null, 3, 10)
+		                .isEmpty());
+	}
+
+	@Test
+	void followsWrittenNotes() {
+		index.put(note("4", "Budget draft", "numbers", "PERSONAL"));
+		index.put(note("1", "Quarterly plan", "hiring only", "PERSONAL"));
+		index.remove("3");
+		assertEquals(Arrays.asList("4", "2", "1"), index.match(tags("PERSONAL"), TagMatch.ALL, null, 0, 10));
+		assertEquals(Collections.singletonList("4"), index.match(null, TagMatch.ALL, "budget", 0, 10));
+		assertTrue(index.match(tags("BUSINESS"), TagMatch.ALL, null, 0, 10)
+		                .isEmpty());
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void servesQueriesAndReplaysWritesMadeDuringLoad() {
+		Iterator<Note> notes = Arrays.asList(note("1", "Quarterly plan", "Budget review", "BUSINESS"),
+		        note("3", "Team offsite", "plan the budget", "BUSINESS"))
+		                             .iterator();
+		index.load(new Iterator<Note>() {
+
+			@Override
+			public boolean hasNext() {
+				return notes.hasNext();
+			}
+
+			@Override
+			public Note next() {
+				Note next = notes.next();
+				if (!notes.hasNext()) {
+					// previous content is queried while notes are being loaded
+					assertEquals(Arrays.asList("3", "2", "1"), index.match(null, TagMatch.ALL, null, 0, 10));
+					index.put(note("4", "Budget draft", "numbers", "PERSONAL"));
+					index.remove("1");
+				}
+				return next;
+			}
+		});
+		assertEquals(Arrays.asList("4", "3"), index.match(null, TagMatch.ALL, null, 0, 10));
+		assertEquals(Arrays.asList("4", "3"), index.match(null, TagMatch.ALL, "budget", 0, 10));
+		assertEquals(2, index.size());
+	}
+
+	private static List<String> tags(String... tags) {
+		return Arrays.asList(tags);
+	}
+
+	private static Note note(String noteID, String title, String text, String... tags) {
+		return new Note(noteID, title, null, null, text, Arrays.asList(tags), null);
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.mycomp.notesApp.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mycomp.notesApp.domain.Note;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver.IndexDefinitionHolder;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * In memory mongo server used by other tests has no $text operator, so search
+ * of compressed notes is checked by words written next to compressed text and
+ * by text index covering them
+ */
+class NoteTextCompressorTest {
+
+	private static final String TEXT = "Quarterly Budget review, budget of hiring and offsite plans. ";
+
+	private NoteTextCompressor compressor;
+
+	@BeforeEach
+	void setUp() {
+		compressor = new NoteTextCompressor();
+		compressor.textStore = new NoteTextStore();
+		compressor.enabled = true;
+		compressor.minLength = 100;
+		compressor.level = 1;
+		compressor.wordsMaxLength = 1000;
+	}
+
+	@Test
+	void keepsWordsOfCompressedTextForTextIndex() {
+		Note note = new Note();
+		note.setNoteTitle("Plans");
+		note.setNoteText(repeat(TEXT, 10));
+		Document document = new Document("noteTitle", "Plans").append("noteText", note.getNoteText());
+		compressor.onBeforeSave(new BeforeSaveEvent<>(note, document, "note"));
+
+		assertFalse(document.containsKey("noteText"));
+		assertTrue(document.containsKey("noteTextDeflated"));
+		assertEquals("quarterly budget review of hiring and offsite plans", document.get("noteTextWords"));
+
+		Document update = compressor.setText(new Update(), note)
+		                            .getUpdateObject();
+		assertEquals("quarterly budget review of hiring and offsite plans",
+		        update.get("$set", Document.class)
+		              .get("noteTextWords"));
+
+		note.setNoteText(TEXT);
+		update = compressor.setText(new Update(), note)
+		                   .getUpdateObject();
+		assertTrue(update.get("$unset", Document.class)
+		                 .containsKey("noteTextWords"));
+	}
+
+	@Test
+	void capsWordsAtMaxLength() {
+		compressor.wordsMaxLength = 20;
+		assertEquals("quarterly budget", compressor.words(TEXT));
+	}
+
+	@Test
+	void textIndexCoversWordsOfCompressedText() {
+		NoteIndexManager indexManager = new NoteIndexManager();
+		indexManager.mappingContext = new MongoMappingContext();
+		Document keys = null;
+		for (IndexDefinition definition : indexManager.indexDefinitions()) {
+			if (((IndexDefinitionHolder) definition).getIndexDefinition() instanceof TextIndexDefinition) {
+				keys = definition.getIndexKeys();
+			}
+		}
+		assertEquals("text", keys.get("noteText"));
+		assertEquals("text", keys.get("noteTextWords"));
+	}
+
+	private static String repeat(String text, int times) {
+		StringBuilder repeated = new StringBuilder();
+		for (int i = 0; i < times; i++) {
+			repeated.append(text);
+		}
+		return repeated.toString();
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.mycomp.notesApp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import com.mycomp.notesApp.errors.ApiValidationError;
+import com.mycomp.notesApp.exceptions.InputParameterInvalidException;
+import com.mycomp.notesApp.to.NoteTO;
+
+import org.junit.jupiter.api.Test;
+
+class RestInputValidationServiceTest {
+
+	private final RestInputValidationService validationService = new RestInputValidationService(
+	        new TagRegistry(null, Arrays.asList("BUSINESS", "PERSONAL", "IMPORTANT")));
+
+	@Test
+	void reportsAllViolationsAtOnce() {
+		NoteTO note = new NoteTO(null, " ", null, null, null, new ArrayList<>(Arrays.asList("BUSINESS", "NOPE")));
+		InputParameterInvalidException ex = assertThrows(InputParameterInvalidException.class,
+		        () -> validationService.validate(note));
+		assertEquals(Arrays.asList("title", "text", "tags"), fields(ex.getViolations()));
+	}
+
+	@Test
+	void acceptsValidNote() {
+		assertTrue(validationService.validate(note(0, true)));
+	}
+
+	/**
+	 * Every thread validates its own notes while others validate theirs, each
+	 * outcome has to belong to the note passed by that thread
+	 */
+	@Test
+	void validatesConcurrentlyWithoutSharingState() throws Exception {
+		int threads = 16;
+		int iterations = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				results.add(executor.submit(() -> {
+					start.await();
+					int mismatches = 0;
+					for (int i = 0; i < iterations; i++) {
+						boolean valid = (i + thread) % 2 == 0;
+						NoteTO note = note(thread * iterations + i, valid);
+						List<ApiValidationError> violations = validationService.violations(note);
+						boolean expected = valid ? violations.isEmpty()
+						        : fields(violations).equals(Arrays.asList("text"))
+						                && note.getNoteText() == violations.get(0)
+						                                                   .getRejectedValue();
+						if (!expected) {
+							mismatches++;
+						}
+					}
+					return mismatches;
+				}));
+			}
+			start.countDown();
+			for (Future<Integer> result : results) {
+				assertEquals(0, result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static NoteTO note(int number, boolean valid) {
+		// invalid text is a distinct instance so violation can be traced back to its note
+		return new NoteTO(null, "title " + number, null, null, valid ? "text " + number : new String(" "),
+		        new ArrayList<>(Arrays.asList("BUSINESS")));
+	}
+
+	private static List<String> fields(List<ApiValidationError> violations) {
+		return violations.stream()
+		                 .map(ApiValidationError::getField)
+		                 .collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,38 @@
+package com.mycomp.notesApp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import com.mycomp.notesApp.exceptions.DataMappingException;
+
+import org.junit.jupiter.api.Test;
+
+class TextCompressionTest {
+
+	@Test
+	void inflatesDeflatedText() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 20_000; i++) {
+			text.append("note 𝔘𝔫𝔦 ")
+			    .append(i % 97)
+			    .append('\n');
+		}
+		byte[] deflated = TextCompression.deflate(text.toString(), 1);
+		assertTrue(deflated.length < text.length() / 4);
+		assertEquals(text.toString(), TextCompression.inflate(deflated));
+		assertEquals("", TextCompression.inflate(TextCompression.deflate("", 6)));
+	}
+
+	@Test
+	void failsOnCorruptedText() {
+		byte[] deflated = TextCompression.deflate("quarterly report quarterly report", 6);
+		assertThrows(DataMappingException.class,
+		        () -> TextCompression.inflate(Arrays.copyOf(deflated, deflated.length - 3)));
+		deflated[deflated.length - 1] ^= 1;
+		assertThrows(DataMappingException.class, () -> TextCompression.inflate(deflated));
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.mycomp.notesApp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.mycomp.notesApp.domain.WordCount;
+
+import org.junit.jupiter.api.Test;
+
+class TextStatisticsEngineTest {
+
+	@Test
+	void countsWordsIgnoringPunctuation() {
+		List<WordCount> words = TextStatisticsEngine.topWords("One, two two; TWO three. one!", true, 10);
+		assertEquals(Arrays.asList(new WordCount("two", 3), new WordCount("one", 2), new WordCount("three", 1)),
+		        words);
+	}
+
+	@Test
+	void keepsCaseUnlessFolded() {
+		List<WordCount> words = TextStatisticsEngine.topWords("Note note NOTE 𝔘𝔫𝔦 𝔘𝔫𝔦", false, 10);
+		assertEquals(Arrays.asList(new WordCount("𝔘𝔫𝔦", 2), new WordCount("NOTE", 1), new WordCount("Note", 1),
+		        new WordCount("note", 1)), words);
+	}
+
+	@Test
+	void returnsNothingForEmptyText() {
+		assertTrue(TextStatisticsEngine.topWords("", true, 10)
+		                               .isEmpty());
+		assertTrue(TextStatisticsEngine.topWords(" ,. ", true, 10)
+		                               .isEmpty());
+		assertTrue(TextStatisticsEngine.topWords(null, true, 10)
+		                               .isEmpty());
+	}
+
+	@Test
+	void listsDistinctWordsInOrderOfOccurrence() {
+		assertEquals(Arrays.asList("two", "one", "three"),
+		        TextStatisticsEngine.distinctWords("Two, one two; ONE three.", true));
+		assertTrue(TextStatisticsEngine.distinctWords(null, true)
+		                               .isEmpty());
+	}
+
+	@Test
+	void matchesReferenceCountingOnLargeText() {
+		Random random = new Random(7);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 200_000; i++) {
+			text.append("w")
+			    .append((int) (5000 * Math.pow(random.nextDouble(), 2)))
+			    .append(random.nextInt(5) == 0 ? ", " : " ");
+		}
+		for (int top : new int[] { 1, 100, 10_000 }) {
+			assertEquals(reference(text.toString(), top), TextStatisticsEngine.topWords(text, true, top));
+		}
+	}
+
+	private static List<WordCount> reference(String text, int top) {
+		Map<String, Integer> counts = new HashMap<>();
+		for (String word : text.toLowerCase(Locale.ROOT)
+		                       .split("[^\\p{L}\\p{Nd}]+")) {
+			if (!word.isEmpty()) {
+				counts.merge(word, 1, Integer::sum);
+			}
+		}
+		return counts.entrySet()
+		             .stream()
+		             .map(e -> new WordCount(e.getKey(), e.getValue()))
+		             .sorted(Comparator.comparingInt(WordCount::getCount)
+		                               .reversed()
+		                               .thenComparing(WordCount::getWord))
+		             .limit(top)
+		             .collect(Collectors.toList());
+	}
+}